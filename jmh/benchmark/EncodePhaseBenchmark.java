@@ -0,0 +1,163 @@
+package benchmark;
+
+/* -------- IMPORTS ---------- */
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+/* -------------------------- */
+
+/**
+ * [EncodePhaseBenchmark.java]
+ * The program measures every phase of encoding with JMH: counting frequencies, building the binary tree, finding the representations,
+ * packing the bits and writing the header, over the same four made-up files as the HuffmanBenchmark class.
+ * Every phase runs in its own forked JVMs after a warm up, and its result goes to a Blackhole so that the JIT cannot remove the work.
+ * The time of a single run is reported for every phase; for frequency and packing, which go over every byte, it is the time for the whole file,
+ * while the tree, codes and header phases only depend on the 256 frequencies.
+ * The GC and allocation profiler is always added, and any other JMH options can be given on the command line.
+ * JMH cannot generate code for a class outside a package, and a class in a package cannot name the classes of the encoder,
+ * so the phases are found once by reflection when a trial is set up and then run through the LongSupplier interface.
+ * @author Braydon Wang
+ * @version 1.1, Oct 18, 2026
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+public class EncodePhaseBenchmark {
+
+  /** The name of the made-up file, from the FILES of the HuffmanBenchmark class. */
+  @Param({"uniform", "text", "binary", "tiny"})
+  public String file;
+
+  /** The number of bytes in every file except the tiny one. */
+  @Param({"4194304"})
+  public int size;
+
+  /** The phase that counts the frequency of every byte. */
+  private LongSupplier frequency;
+  /** The phase that builds the binary tree from the frequencies. */
+  private LongSupplier tree;
+  /** The phase that finds the canonical representations from the tree. */
+  private LongSupplier codes;
+  /** The phase that packs the representation of every byte. */
+  private LongSupplier packing;
+  /** The phase that writes the header. */
+  private LongSupplier header;
+
+  /**
+   * This method makes the file and its phases before a trial is measured
+   * @throws ReflectiveOperationException if the HuffmanBenchmark class is not on the class path
+   */
+
+  @Setup
+  public void setUp() throws ReflectiveOperationException {
+    /** The method of the HuffmanBenchmark class that creates the phases for a made-up file. */
+    Method phases = Class.forName("HuffmanBenchmark").getDeclaredMethod("phases", String.class, int.class);
+    phases.setAccessible(true);
+
+    for (LongSupplier phase: (LongSupplier[])phases.invoke(null, file, size)) {
+      /** The name of the phase. */
+      String name = phase.toString();
+      if (name.equals("frequency")) {
+        frequency = phase;
+      } else if (name.equals("tree")) {
+        tree = phase;
+      } else if (name.equals("codes")) {
+        codes = phase;
+      } else if (name.equals("packing")) {
+        packing = phase;
+      } else if (name.equals("header")) {
+        header = phase;
+      }
+    }
+  }
+
+  /**
+   * This method measures counting the frequency of every byte of the file
+   * @param blackhole  the sink that keeps the result alive
+   */
+
+  @Benchmark
+  public void frequency(Blackhole blackhole) {
+    blackhole.consume(frequency.getAsLong());
+  }
+
+  /**
+   * This method measures building the priority queue and binary tree from the frequencies
+   * @param blackhole  the sink that keeps the result alive
+   */
+
+  @Benchmark
+  public void tree(Blackhole blackhole) {
+    blackhole.consume(tree.getAsLong());
+  }
+
+  /**
+   * This method measures finding the canonical representations from the binary tree
+   * @param blackhole  the sink that keeps the result alive
+   */
+
+  @Benchmark
+  public void codes(Blackhole blackhole) {
+    blackhole.consume(codes.getAsLong());
+  }
+
+  /**
+   * This method measures packing the representation of every byte of the file
+   * @param blackhole  the sink that keeps the result alive
+   */
+
+  @Benchmark
+  public void packing(Blackhole blackhole) {
+    blackhole.consume(packing.getAsLong());
+  }
+
+  /**
+   * This method measures writing the header
+   * @param blackhole  the sink that keeps the result alive
+   */
+
+  @Benchmark
+  public void header(Blackhole blackhole) {
+    blackhole.consume(header.getAsLong());
+  }
+
+  /**
+   * This method runs the benchmarks with the GC and allocation profiler, so that the bytes allocated by every phase are reported
+   * @param args  any JMH options, such as -p size=1048576 or a pattern of the benchmarks to run
+   * @throws Exception if the options are not valid or a benchmark fails
+   */
+
+  public static void main(String[] args) throws Exception {
+    /** The options given on the command line. */
+    CommandLineOptions options = new CommandLineOptions(args);
+    /** The options with the profiler added. */
+    OptionsBuilder builder = new OptionsBuilder();
+    builder.parent(options).addProfiler(GCProfiler.class);
+
+    //Every phase is run unless a pattern of the benchmarks to run was given
+    if (options.getIncludes().isEmpty()) {
+      builder.include(EncodePhaseBenchmark.class.getName());
+    }
+    new Runner(builder.build()).run();
+  }
+}
@@ -0,0 +1,132 @@
+/* -------- IMPORTS ---------- */
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+/* -------------------------- */
+
+/**
+ * [AdaptiveDecoder.java]
+ * The program holds the adaptive decoder class that decodes a message written by the AdaptiveEncoder class.
+ * The decoder keeps its own AdaptiveModel and updates it after every block, the same way the encoder did,
+ * so it always has the code table that the next block was encoded with.
+ * Every block is written to the output as soon as it is decoded.
+ * A block encoded with a table of its own has the lengths of that table before its encoded message, and a stored block is copied as it is.
+ * @author Braydon Wang
+ * @version 1.1, Oct 18, 2026
+ */
+
+class AdaptiveDecoder {
+
+  /** The largest number of original bytes in every block. */
+  private int blockSize;
+
+  /**
+   * Creates an object from the adaptive decoder class.
+   * @param blockSize  the largest number of original bytes in every block
+   */
+
+  AdaptiveDecoder(int blockSize) {
+    this.blockSize = blockSize;
+  }
+
+  /**
+   * This method decodes every block until the end of the message is reached
+   * @param in   the stream that the encoded blocks are read from, placed right after the header
+   * @param out  the stream that the original bytes are written to
+   * @throws IOException if the blocks cannot be read, do not match the representations, or cannot be written
+   */
+
+  public void decode(InputStream in, OutputStream out) throws IOException {
+    /** The model that gives the code table of every block. */
+    AdaptiveModel model = new AdaptiveModel();
+    /** The stream used to read the number of bits of every block. */
+    DataInputStream dataIn = new DataInputStream(in);
+    /** The original bytes of the current block. */
+    ByteBuffer decoded = ByteBuffer.allocate(blockSize);
+    /** The frequency of every byte in the current block. */
+    long[] frequency = new long[256];
+    /** The encoded message of the current block. */
+    byte[] encoded = new byte[0];
+    /** The number of bits in the current block, with how it was written in the top two bits. */
+    int blockHeader;
+
+    while ((blockHeader = dataIn.readInt()) != 0) {
+      /** How the block was written, which is the top two bits. */
+      int kind = blockHeader & ~AdaptiveEncoder.BITS_MASK;
+      /** The number of bits in the block's encoded message. */
+      int numberOfBits = blockHeader & AdaptiveEncoder.BITS_MASK;
+      /** The number of bytes holding the block's encoded message. */
+      int numberOfBytes = (int)(((long)numberOfBits + 7) / 8);
+      if (numberOfBytes > (long)blockSize * CodeTable.MAX_CODE_LENGTH / 8 + 1) {
+        throw new IOException("Not a valid adaptive .MZIP block");
+      }
+      decoded.clear();
+
+      //A stored block is copied as it is
+      if (kind == AdaptiveEncoder.STORED) {
+        if (numberOfBits % 8 != 0 || numberOfBytes > blockSize) {
+          throw new IOException("Not a valid adaptive .MZIP block");
+        }
+        dataIn.readFully(decoded.array(), 0, numberOfBytes);
+        decoded.position(numberOfBytes);
+
+      } else {
+        /** The code table that the block was encoded with. */
+        CodeTable table;
+        if (kind == AdaptiveEncoder.OWN_TABLE) {
+          table = readLengths(dataIn);
+        } else if (kind == 0) {
+          table = model.getTable();
+        } else {
+          throw new IOException("Not a valid adaptive .MZIP block");
+        }
+        if (encoded.length < numberOfBytes) {
+          encoded = new byte[numberOfBytes];
+        }
+        dataIn.readFully(encoded, 0, numberOfBytes);
+        try {
+          new HuffmanDecoder(table).decode(ByteBuffer.wrap(encoded, 0, numberOfBytes), numberOfBits, decoded);
+        } catch (BufferOverflowException e) {
+          throw new IOException("Not a valid adaptive .MZIP block");
+        } catch (IllegalArgumentException e) {
+          //The lengths of a block's own table may not make representations that can be told apart
+          throw new IOException("Not a valid adaptive .MZIP block", e);
+        }
+      }
+      out.write(decoded.array(), 0, decoded.position());
+      out.flush();
+
+      //Learn from the block the same way the encoder did
+      Arrays.fill(frequency, 0);
+      FrequencyCounter.countFrequencies(frequency, decoded.array(), 0, decoded.position());
+      model.update(frequency);
+    }
+  }
+
+  /**
+   * This method reads the lengths of a block's own table, two lengths in every byte, and builds the table
+   * @param in  the stream that the lengths are read from
+   * @return       the code table of the block
+   * @throws IOException if the lengths cannot be read or do not make a code table
+   */
+
+  private static CodeTable readLengths(DataInputStream in) throws IOException {
+    /** The length of every byte's representation. */
+    int[] lengths = new int[256];
+    for (int x = 0; x < lengths.length; x += 2) {
+      /** The byte holding the lengths of two bytes. */
+      int pair = in.readUnsignedByte();
+      lengths[x] = pair >>> 4;
+      lengths[x + 1] = pair & 0xF;
+    }
+    try {
+      return CodeTable.fromLengths(lengths);
+    } catch (IllegalArgumentException e) {
+      throw new IOException("Not a valid adaptive .MZIP block", e);
+    }
+  }
+}
@@ -0,0 +1,162 @@
+/* -------- IMPORTS ---------- */
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+/* -------------------------- */
+
+/**
+ * [AdaptiveEncoder.java]
+ * The program holds the adaptive encoder class that encodes a stream in a single pass, such as a pipe or a socket that can only be read once.
+ * The stream is encoded one block at a time with the code table of an AdaptiveModel, which learns from every block after it is encoded.
+ * A block holds whatever bytes are available, up to the block size, so a slow stream is not held back waiting for a full block.
+ * Every block is written as the number of bits in its encoded message (4 bytes) followed by the encoded message,
+ * which starts on a new byte, and the stream is flushed after every block. A block of 0 bits marks the end of the message.
+ * The model knows nothing before the first block, and little about a block that is not like the ones before it,
+ * so every block is counted first and written whichever way is shortest: with the model's table,
+ * with a table of its own whose lengths (128 bytes, four bits for every byte) come before the encoded message, or stored as it is.
+ * The way a block is written is kept in the top two bits of its number of bits, which are 0 for the model's table,
+ * so a block never takes more than 4 bytes over its original size.
+ * @author Braydon Wang
+ * @version 1.1, Oct 18, 2026
+ */
+
+class AdaptiveEncoder {
+
+  /** The largest block size allowed, which keeps the number of bits of a block within 4 bytes. */
+  static final int MAX_BLOCK_SIZE = 1 << 24;
+  /** The block size used when no other block size is given. */
+  static final int DEFAULT_BLOCK_SIZE = 1 << 16;
+  /** The bits of a block's number of bits that hold the number itself, below the two bits that tell how the block was written. */
+  static final int BITS_MASK = (1 << 30) - 1;
+  /** The top bits of a block that was encoded with a table of its own. */
+  static final int OWN_TABLE = 1 << 30;
+  /** The top bits of a block that was stored as it is. */
+  static final int STORED = 2 << 30;
+  /** The longest representation in a block's own table, so that every length fits in four bits. */
+  static final int OWN_MAX_LENGTH = 15;
+  /** The number of bytes that the lengths of a block's own table take, four bits for every byte. */
+  static final int OWN_TABLE_BYTES = 128;
+
+  /** The largest number of original bytes in every block. */
+  private int blockSize;
+
+  /**
+   * Creates an object from the adaptive encoder class.
+   * @param blockSize  the largest number of original bytes in every block
+   */
+
+  AdaptiveEncoder(int blockSize) {
+    if (blockSize <= 0 || blockSize > MAX_BLOCK_SIZE) {
+      throw new IllegalArgumentException("The block size must be between 1 and " + MAX_BLOCK_SIZE);
+    }
+    this.blockSize = blockSize;
+  }
+
+  /**
+   * This method encodes every byte of a stream, writing every block as soon as it is encoded
+   * @param in   the stream that the original bytes are read from
+   * @param out  the stream that the encoded blocks are written to, placed right after the header
+   * @throws IOException if the bytes cannot be read or written
+   */
+
+  public void encode(InputStream in, OutputStream out) throws IOException {
+    /** The model that gives the code table of every block. */
+    AdaptiveModel model = new AdaptiveModel();
+    /** The original bytes of the current block. */
+    byte[] data = new byte[blockSize];
+    /** The frequency of every byte in the current block. */
+    long[] frequency = new long[256];
+    /** The stream used to write the number of bits of every block. */
+    DataOutputStream dataOut = new DataOutputStream(out);
+    /** The bit packer that writes every block's encoded message. */
+    BitPacker packer = new BitPacker(out, FrequencyCounter.BUFFER_SIZE);
+    /** The number of bytes in the current block. */
+    int length;
+
+    while ((length = in.read(data)) != -1) {
+      if (length == 0) {
+        continue;
+      }
+      /** The code table of the current block. */
+      CodeTable table = model.getTable();
+
+      //The number of bits is written first, so the block is counted before it is packed
+      Arrays.fill(frequency, 0);
+      FrequencyCounter.countFrequencies(frequency, data, 0, length);
+      /** The number of bits that the block takes with the model's table. */
+      long modelBits = table.encodedBits(frequency);
+      /** The table built from the block alone, with no representation longer than four bits can hold, or null if it cannot help. */
+      CodeTable own = null;
+      /** The number of bits that the block takes with its own table, not counting the lengths of the table. */
+      long ownBits = Long.MAX_VALUE / 2;
+
+      //No table beats the entropy, so a table of its own is only built when the model's table is further from it than the lengths cost
+      if (modelBits > FrequencyCounter.entropyBits(frequency) + 8 * OWN_TABLE_BYTES) {
+        own = HuffmanEncoder.buildTable(frequency, 0);
+        //The lengths from the binary tree are almost always short enough, and only a block with a very rare byte needs them limited
+        if (maxLength(own.getLengths()) > OWN_MAX_LENGTH) {
+          own = CodeTable.fromLengths(PackageMerge.findLengths(frequency, OWN_MAX_LENGTH));
+        }
+        ownBits = own.encodedBits(frequency);
+      }
+      /** The number of bits that the block takes stored as it is. */
+      long storedBits = 8L * length;
+
+      //Every block is written whichever way is shortest, and storing it is never more than the block itself
+      if (modelBits <= ownBits + 8 * OWN_TABLE_BYTES && modelBits <= storedBits) {
+        dataOut.writeInt((int)modelBits);
+        dataOut.flush();
+        packer.pack(data, 0, length, table);
+        packer.finish();
+      } else if (ownBits + 8 * OWN_TABLE_BYTES < storedBits) {
+        dataOut.writeInt(OWN_TABLE | (int)ownBits);
+        writeLengths(dataOut, own.getLengths());
+        dataOut.flush();
+        packer.pack(data, 0, length, own);
+        packer.finish();
+      } else {
+        dataOut.writeInt(STORED | (int)storedBits);
+        dataOut.write(data, 0, length);
+        dataOut.flush();
+      }
+      out.flush();
+
+      //The decoder learns from the block only after decoding it, so the encoder does the same
+      model.update(frequency);
+    }
+
+    //Mark the end of the message
+    dataOut.writeInt(0);
+    dataOut.flush();
+  }
+
+  /**
+   * This method finds the longest representation in a table
+   * @param lengths  the length of every byte's representation
+   * @return             the longest length
+   */
+
+  private static int maxLength(int[] lengths) {
+    /** The longest length so far. */
+    int max = 0;
+    for (int x = 0; x < lengths.length; x++) {
+      max = Math.max(max, lengths[x]);
+    }
+    return max;
+  }
+
+  /**
+   * This method writes the length of every byte's representation in a block's own table, two lengths in every byte
+   * @param out       the stream that the lengths are written to
+   * @param lengths  the length of every byte's representation, from 0 to OWN_MAX_LENGTH
+   * @throws IOException if the lengths cannot be written
+   */
+
+  private static void writeLengths(OutputStream out, int[] lengths) throws IOException {
+    for (int x = 0; x < lengths.length; x += 2) {
+      out.write(lengths[x] << 4 | lengths[x + 1]);
+    }
+  }
+}
@@ -0,0 +1,68 @@
+/**
+ * [AdaptiveModel.java]
+ * The program holds the adaptive model class that keeps the frequencies used to encode a message that is read only once.
+ * Every byte starts with a frequency of one, and the frequencies of every block are added once the block has been encoded,
+ * so the encoder and the decoder build the same code table for the next block without it being written to the file.
+ * The code table is rebuilt with the same binary tree as the HuffmanCoding program.
+ * Once the total gets too large, every frequency is halved so that recent blocks count for more than old ones
+ * and no representation gets too long.
+ * @author Braydon Wang
+ * @version 1.1, Oct 18, 2026
+ */
+
+class AdaptiveModel {
+
+  /** The total frequency that causes every frequency to be halved. */
+  static final long MAX_TOTAL = 1L << 24;
+
+  /** The frequency of every byte so far, indexed by the unsigned value of the byte. */
+  private long[] frequency;
+  /** The sum of every frequency. */
+  private long total;
+  /** The code table built from the current frequencies. */
+  private CodeTable table;
+
+  /**
+   * Creates an object from the adaptive model class.
+   */
+
+  AdaptiveModel() {
+    this.frequency = new long[256];
+    for (int x = 0; x < frequency.length; x++) {
+      frequency[x] = 1;
+    }
+    this.total = frequency.length;
+    this.table = CodeTable.fromTree(HuffmanEncoder.buildTree(frequency));
+  }
+
+  /**
+   * This method returns the code table for the next block
+   * @return the code table, which has a representation for every byte
+   */
+
+  public CodeTable getTable() {
+    return this.table;
+  }
+
+  /**
+   * This method adds the frequencies of a block and rebuilds the code table
+   * @param blockFrequency  the frequency of every byte in the block
+   */
+
+  public void update(long[] blockFrequency) {
+    for (int x = 0; x < frequency.length; x++) {
+      frequency[x] += blockFrequency[x];
+      total += blockFrequency[x];
+    }
+
+    //Halve every frequency, rounding up so that every byte keeps a representation
+    while (total > MAX_TOTAL) {
+      total = 0;
+      for (int x = 0; x < frequency.length; x++) {
+        frequency[x] = (frequency[x] + 1) / 2;
+        total += frequency[x];
+      }
+    }
+    table = CodeTable.fromTree(HuffmanEncoder.buildTree(frequency));
+  }
+}
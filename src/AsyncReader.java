@@ -0,0 +1,162 @@
+/* -------- IMPORTS ---------- */
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+/* -------------------------- */
+
+/**
+ * [AsyncReader.java]
+ * The program holds the async reader class that reads a file ahead of the thread using it, one direct buffer at a time.
+ * A fixed pool of buffers is kept, and every buffer that is not being used is given to an asynchronous read of the next part of the file,
+ * so the disk fills the next buffers while the current one is counted or encoded.
+ * A buffer goes back into the pool as soon as the next window is asked for, so no more than the pool is ever allocated.
+ * @author Braydon Wang
+ * @version 1.1, Oct 18, 2026
+ */
+
+class AsyncReader implements WindowSource {
+
+  /** The number of bytes in every buffer when no other size is given. */
+  static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+  /** The number of buffers in the pool when no other number is given. */
+  static final int DEFAULT_DEPTH = 4;
+
+  /** The channel that the file is read from. */
+  private AsynchronousFileChannel channel;
+  /** The number of bytes in the file. */
+  private long size;
+  /** The position in the file where the next read starts. */
+  private long readPosition;
+  /** The buffers that are not being read into or used. */
+  private ArrayDeque<ByteBuffer> free;
+  /** The reads that have been started, in the order of the file. */
+  private ArrayDeque<Future<Integer>> pending;
+  /** The buffer of every read that has been started. */
+  private ArrayDeque<ByteBuffer> pendingBuffers;
+  /** The position in the file of every read that has been started. */
+  private ArrayDeque<Long> pendingPositions;
+  /** The buffer returned by the last call to nextWindow, or null if there is none. */
+  private ByteBuffer current;
+
+  /**
+   * Creates an object from the async reader class and opens the file.
+   * @param name          the name of the file
+   * @param bufferSize  the number of bytes in every buffer
+   * @param depth         the number of buffers, which is the most reads that can be waiting at once plus the one being used
+   * @throws IOException if the file cannot be opened
+   */
+
+  AsyncReader(String name, int bufferSize, int depth) throws IOException {
+    this.channel = AsynchronousFileChannel.open(Paths.get(name), StandardOpenOption.READ);
+    this.size = channel.size();
+    this.free = new ArrayDeque<ByteBuffer>();
+    this.pending = new ArrayDeque<Future<Integer>>();
+    this.pendingBuffers = new ArrayDeque<ByteBuffer>();
+    this.pendingPositions = new ArrayDeque<Long>();
+    for (int i = 0; i < Math.max(depth, 2); i++) {
+      free.add(ByteBuffer.allocateDirect(bufferSize));
+    }
+  }
+
+  /**
+   * This method returns the next part of the file, waiting for its read to finish if it has not yet
+   * @return the buffer holding the next part of the file, or null if the whole file has been read
+   * @throws IOException if the file cannot be read or got shorter while it was being read
+   */
+
+  public ByteBuffer nextWindow() throws IOException {
+    //The window from last time is finished with, so its buffer can be read into again
+    if (current != null) {
+      current.clear();
+      free.add(current);
+      current = null;
+    }
+    //Keep every free buffer busy reading the parts of the file that come next
+    while (!free.isEmpty() && readPosition < size) {
+      /** The buffer that the next part of the file is read into. */
+      ByteBuffer buffer = free.poll();
+      buffer.limit((int)Math.min(buffer.capacity(), size - readPosition));
+      pending.add(channel.read(buffer, readPosition));
+      pendingBuffers.add(buffer);
+      pendingPositions.add(readPosition);
+      readPosition += buffer.limit();
+    }
+    if (pending.isEmpty()) {
+      return null;
+    }
+
+    /** The oldest read, which holds the next part of the file. */
+    Future<Integer> read = pending.poll();
+    /** The buffer of the oldest read. */
+    ByteBuffer buffer = pendingBuffers.poll();
+    /** The position in the file of the oldest read. */
+    long position = pendingPositions.poll();
+
+    //A read can stop before the buffer is full, so the rest of it is read before it is used
+    while (waitFor(read) >= 0 && buffer.hasRemaining()) {
+      read = channel.read(buffer, position + buffer.position());
+    }
+    if (buffer.hasRemaining()) {
+      throw new IOException("The file got shorter while it was being read");
+    }
+    buffer.flip();
+    current = buffer;
+    return buffer;
+  }
+
+  /**
+   * This method goes back to the start of the file, waiting for any reads that were started to finish
+   * @throws IOException if the file cannot be read again
+   */
+
+  public void rewind() throws IOException {
+    while (!pending.isEmpty()) {
+      waitFor(pending.poll());
+      /** The buffer of the read that finished. */
+      ByteBuffer buffer = pendingBuffers.poll();
+      buffer.clear();
+      free.add(buffer);
+      pendingPositions.poll();
+    }
+    if (current != null) {
+      current.clear();
+      free.add(current);
+      current = null;
+    }
+    readPosition = 0;
+    size = channel.size();
+  }
+
+  /**
+   * This method closes the file, which stops any reads that were started
+   * @throws IOException if the file cannot be closed
+   */
+
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  /**
+   * This method waits for a read to finish
+   * @param read  the read
+   * @return          the number of bytes read, or -1 at the end of the file
+   * @throws IOException if the read failed or the thread was interrupted
+   */
+
+  private static int waitFor(Future<Integer> read) throws IOException {
+    try {
+      return read.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while reading the file");
+    } catch (ExecutionException e) {
+      throw new IOException("The file could not be read", e.getCause());
+    }
+  }
+}
@@ -0,0 +1,218 @@
+/* -------- IMPORTS ---------- */
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+/* -------------------------- */
+
+/**
+ * [AsyncWriter.java]
+ * The program holds the async writer class, a stream that hands the bytes written to it to a separate thread that writes them to a file.
+ * The bytes are copied into direct buffers from a fixed pool, and every full buffer is passed to the writer thread through a bounded queue,
+ * so the thread encoding the file only waits for the disk when every buffer in the pool is waiting to be written.
+ * If the writer thread fails, it keeps giving buffers back to the pool without writing them, and the error is thrown by the next write or by close.
+ * @author Braydon Wang
+ * @version 1.1, Oct 18, 2026
+ */
+
+class AsyncWriter extends OutputStream {
+
+  /** The number of bytes in every buffer when no other size is given. */
+  static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+  /** The number of buffers in the pool when no other number is given. */
+  static final int DEFAULT_DEPTH = 4;
+  /** The buffer put in the queue to tell the writer thread that nothing more is coming. */
+  private static final ByteBuffer END = ByteBuffer.allocate(0);
+
+  /** The channel that the bytes are written to, from its current position. */
+  private FileChannel channel;
+  /** The buffers that are not holding bytes. */
+  private BlockingQueue<ByteBuffer> free;
+  /** The full buffers waiting to be written, in order. */
+  private BlockingQueue<ByteBuffer> full;
+  /** The buffer being filled, or null if none has been taken from the pool yet. */
+  private ByteBuffer current;
+  /** The thread that writes the full buffers. */
+  private Thread thread;
+  /** The error that stopped the writer thread, or null if there was none. */
+  private volatile IOException error;
+  /** Whether the stream has been closed. */
+  private boolean closed;
+
+  /**
+   * Creates an object from the async writer class and starts its writer thread.
+   * @param channel      the channel that the bytes are written to, starting at its current position
+   * @param bufferSize  the number of bytes in every buffer
+   * @param depth         the number of buffers in the pool
+   */
+
+  AsyncWriter(FileChannel channel, int bufferSize, int depth) {
+    this.channel = channel;
+    this.free = new ArrayBlockingQueue<ByteBuffer>(Math.max(depth, 2));
+    this.full = new ArrayBlockingQueue<ByteBuffer>(Math.max(depth, 2) + 1);
+    for (int i = 0; i < Math.max(depth, 2); i++) {
+      free.add(ByteBuffer.allocateDirect(bufferSize));
+    }
+
+    this.thread = new Thread(new Runnable() {
+      public void run() {
+        writeAll();
+      }
+    }, "AsyncWriter");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * This method writes a single byte
+   * @param b  the byte being written
+   * @throws IOException if the writer thread failed or the thread was interrupted
+   */
+
+  public void write(int b) throws IOException {
+    if (current == null) {
+      current = take(free);
+    }
+    current.put((byte)b);
+    if (!current.hasRemaining()) {
+      send();
+    }
+  }
+
+  /**
+   * This method writes a section of an array
+   * @param b        the array holding the bytes
+   * @param off      the index of the first byte
+   * @param len      the number of bytes
+   * @throws IOException if the writer thread failed or the thread was interrupted
+   */
+
+  public void write(byte[] b, int off, int len) throws IOException {
+    while (len > 0) {
+      if (current == null) {
+        current = take(free);
+      }
+      /** The number of bytes that fit in the current buffer. */
+      int part = Math.min(len, current.remaining());
+      current.put(b, off, part);
+      off += part;
+      len -= part;
+      if (!current.hasRemaining()) {
+        send();
+      }
+    }
+  }
+
+  /**
+   * This method passes the bytes written so far to the writer thread, without waiting for them to be written
+   * @throws IOException if the writer thread failed or the thread was interrupted
+   */
+
+  public void flush() throws IOException {
+    if (current != null && current.position() > 0) {
+      send();
+    }
+  }
+
+  /**
+   * This method waits for every byte to be written and stops the writer thread, without closing the channel
+   * @throws IOException if the writer thread failed or the thread was interrupted
+   */
+
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      flush();
+      put(full, END);
+      thread.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for the file to be written");
+    }
+    if (error != null) {
+      throw error;
+    }
+  }
+
+  /**
+   * This method passes the current buffer to the writer thread
+   * @throws IOException if the writer thread failed or the thread was interrupted
+   */
+
+  private void send() throws IOException {
+    if (error != null) {
+      throw error;
+    }
+    current.flip();
+    put(full, current);
+    current = null;
+  }
+
+  /**
+   * This method writes every buffer from the queue until it is told that nothing more is coming, which the writer thread runs
+   */
+
+  private void writeAll() {
+    try {
+      while (true) {
+        /** The next buffer to write. */
+        ByteBuffer buffer = full.take();
+        if (buffer == END) {
+          return;
+        }
+        //After an error, buffers are only given back so that the other thread never waits for one forever
+        if (error == null) {
+          try {
+            while (buffer.hasRemaining()) {
+              channel.write(buffer);
+            }
+          } catch (IOException e) {
+            error = e;
+          }
+        }
+        buffer.clear();
+        free.put(buffer);
+      }
+    } catch (InterruptedException e) {
+      error = new InterruptedIOException("The writer thread was interrupted");
+    }
+  }
+
+  /**
+   * This method takes a buffer from a queue, waiting until there is one
+   * @param queue  the queue
+   * @return           the buffer
+   * @throws IOException if the thread was interrupted
+   */
+
+  private static ByteBuffer take(BlockingQueue<ByteBuffer> queue) throws IOException {
+    try {
+      return queue.take();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for a buffer");
+    }
+  }
+
+  /**
+   * This method puts a buffer in a queue, waiting until there is room
+   * @param queue   the queue
+   * @param buffer  the buffer
+   * @throws IOException if the thread was interrupted
+   */
+
+  private static void put(BlockingQueue<ByteBuffer> queue, ByteBuffer buffer) throws IOException {
+    try {
+      queue.put(buffer);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting to write a buffer");
+    }
+  }
+}
@@ -0,0 +1,485 @@
+/* -------- IMPORTS ---------- */
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CheckedOutputStream;
+/* -------------------------- */
+
+/**
+ * [BatchEncoder.java]
+ * The program holds the batch encoder class that encodes many files in one run, so that the JVM is only started once.
+ * The files are shared between a fixed pool of threads, and every thread keeps its own buffers, counters and encoder,
+ * which it reuses for every file it encodes instead of making new ones.
+ * A file that fits in a thread's buffer is read only once, and its bytes are encoded straight from the buffer,
+ * while a larger file is read a second time to be encoded, the same way as the HuffmanCoding program.
+ * Every .MZIP file is written next to its original file, named after the whole name of the original file with .MZIP added,
+ * so that files that only differ after their first dot, such as rotated logs, do not overwrite each other.
+ * A file that fails is reported without stopping the others, and so is a file whose .MZIP file another file of the batch is already written to.
+ * With a code table cache, a file whose bytes are spread out like an earlier file's reuses that file's table instead of building a tree.
+ * A file that would not be made smaller by the smallest saving is stored as it is, the same way as the HuffmanCoding program does it.
+ * @author Braydon Wang
+ * @version 1.1, Oct 18, 2026
+ */
+
+class BatchEncoder {
+
+  /** Whether the bytes are given canonical representations that are stored in the file as lengths only. */
+  private boolean canonical;
+  /** The longest representation allowed, or 0 if the length is not limited. */
+  private int maxBits;
+  /** The number of threads that encode files. */
+  private int threads;
+  /** The smallest saving, as a percentage of the original size, that is worth encoding for; otherwise the file is stored. */
+  private double minSavings;
+  /** The saved code table used for every file, or null if every file gets its own table. */
+  private CodeTable storedTable;
+  /** The second header line that names the saved code table. */
+  private String storedLine;
+  /** The listener told about every file once it is encoded, or null if nobody is watching. */
+  private EncodeListener listener;
+  /** The cache of tables built for earlier files, shared by every thread, or null if every file builds its own. */
+  private CodeTableCache cache;
+  /** The buffers, counters and encoder of every thread. */
+  private ThreadLocal<Worker> workers;
+  /** The number of files encoded so far. */
+  private AtomicLong fileCount;
+  /** The number of original bytes encoded so far. */
+  private AtomicLong inputBytes;
+  /** The number of bytes written to .MZIP files so far. */
+  private AtomicLong outputBytes;
+  /** The files that could not be encoded, each with the reason. */
+  private List<String> failures;
+
+  /**
+   * Creates an object from the batch encoder class.
+   * @param canonical  whether the representations are canonical
+   * @param maxBits     the longest representation allowed, or 0 if the length is not limited
+   * @param threads      the number of threads that encode files
+   */
+
+  BatchEncoder(boolean canonical, int maxBits, int threads) {
+    this.canonical = canonical;
+    this.maxBits = maxBits;
+    this.threads = threads;
+    this.minSavings = 1;
+    this.workers = new ThreadLocal<Worker>() {
+      protected Worker initialValue() {
+        return new Worker();
+      }
+    };
+    this.fileCount = new AtomicLong();
+    this.inputBytes = new AtomicLong();
+    this.outputBytes = new AtomicLong();
+    this.failures = Collections.synchronizedList(new ArrayList<String>());
+  }
+
+  /**
+   * This method makes every file be encoded with a saved code table instead of its own
+   * @param id      the name of the saved table
+   * @param table  the saved table
+   */
+
+  public void setStoredTable(String id, CodeTable table) {
+    this.storedTable = table;
+    this.storedLine = MzipHeader.TABLE_MARK + id;
+  }
+
+  /**
+   * This method sets the smallest saving that is worth encoding a file for
+   * @param minSavings  the smallest saving, as a percentage of the original size
+   */
+
+  public void setMinSavings(double minSavings) {
+    this.minSavings = minSavings;
+  }
+
+  /**
+   * This method sets the listener that is told about every file once it is encoded
+   * @param listener  the listener, which is called from every thread, or null to record no metrics
+   */
+
+  public void setListener(EncodeListener listener) {
+    this.listener = listener;
+  }
+
+  /**
+   * This method sets the cache that tables built for earlier files are reused from
+   * @param cache  the cache, or null to build a table for every file
+   */
+
+  public void setCache(CodeTableCache cache) {
+    this.cache = cache;
+  }
+
+  /**
+   * This method finds the files to encode
+   * @param source  a directory, whose files are all found, including the ones in its subdirectories,
+   *                       or a file that lists the name of one file on every line
+   * @return             the files to encode, leaving out .MZIP files
+   * @throws IOException if the list of files cannot be read
+   */
+
+  public static List<File> findFiles(String source) throws IOException {
+    /** The files to encode. */
+    List<File> files = new ArrayList<File>();
+    /** The starting file or directory. */
+    File start = new File(source);
+
+    //A list of names is read one line at a time
+    if (!start.isDirectory()) {
+      /** The reader used to read the list. */
+      BufferedReader in = new BufferedReader(new FileReader(start));
+      try {
+        /** The current line of the list. */
+        String line;
+        while ((line = in.readLine()) != null) {
+          if (line.trim().length() > 0) {
+            files.add(new File(line.trim()));
+          }
+        }
+      } finally {
+        in.close();
+      }
+      return files;
+    }
+
+    /** The directories that still need to be looked through. */
+    ArrayDeque<File> directories = new ArrayDeque<File>();
+    directories.add(start);
+    while (!directories.isEmpty()) {
+      /** The files and directories inside the current directory. */
+      File[] children = directories.poll().listFiles();
+      if (children == null) {
+        continue;
+      }
+      for (File child: children) {
+        if (child.isDirectory()) {
+          directories.add(child);
+        } else if (!child.getName().endsWith(".MZIP")) {
+          files.add(child);
+        }
+      }
+    }
+    return files;
+  }
+
+  /**
+   * This method encodes every file, waiting until they are all done
+   * @param files  the files to encode
+   * @throws InterruptedException if the thread is interrupted while waiting
+   */
+
+  public void encodeAll(List<File> files) throws InterruptedException {
+    /** The pool of threads that encode the files. */
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    /** The .MZIP files that a file of the batch is written to, so that no two tasks ever open the same one. */
+    HashSet<File> targets = new HashSet<File>();
+
+    for (final File file: files) {
+      //A file named twice in a list, or through two paths, is only encoded once
+      if (!targets.add(encodedFile(file).getAbsoluteFile().toPath().normalize().toFile())) {
+        failures.add(file + ": another file of the batch is already encoded into " + encodedFile(file));
+        continue;
+      }
+      pool.execute(new Runnable() {
+        public void run() {
+          try {
+            encodeFile(file);
+          } catch (Exception e) {
+            failures.add(file + ": " + e);
+          }
+        }
+      });
+    }
+    pool.shutdown();
+    pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * This method encodes a single file with the current thread's buffers and encoder
+   * @param file  the file being encoded
+   * @throws IOException if the file cannot be read or the .MZIP file cannot be written
+   */
+
+  public void encodeFile(File file) throws IOException {
+    /** The buffers, counters and encoder of the current thread. */
+    Worker worker = workers.get();
+    /** The number of bytes at the start of the file that are held in the buffer. */
+    int length;
+    /** Whether the whole file is held in the buffer. */
+    boolean whole;
+    /** The number of bytes in the file. */
+    long size;
+    /** The time and allocations of every phase, or null if there is no listener to tell. */
+    EncodeMetrics metrics = listener != null ? new EncodeMetrics() : null;
+
+    //Count the frequencies, keeping the start of the file in the buffer
+    Arrays.fill(worker.frequency, 0);
+    /** The stream used to read the file. */
+    FileInputStream in = new FileInputStream(file);
+    try {
+      length = BlockEncoder.readFully(in, worker.buffer);
+      FrequencyCounter.countFrequencies(worker.frequency, worker.buffer, 0, length);
+      whole = length < worker.buffer.length;
+      size = length;
+
+      //The rest of a larger file is counted one chunk at a time, and read again later to be encoded
+      if (!whole) {
+        /** The number of bytes read into the buffer. */
+        int count;
+        while ((count = in.read(worker.buffer)) != -1) {
+          FrequencyCounter.countFrequencies(worker.frequency, worker.buffer, 0, count);
+          size += count;
+        }
+      }
+    } finally {
+      in.close();
+    }
+    if (metrics != null) {
+      metrics.endPhase(EncodeMetrics.READ);
+      metrics.setEntropy(worker.frequency);
+    }
+
+    //No code can beat the entropy, so a file that would not save enough even at the entropy is stored without building a tree
+    if (storedTable == null && !HuffmanCoding.saves(FrequencyCounter.entropyBits(worker.frequency) / 8, worker.frequency, minSavings)) {
+      store(file, size, metrics);
+      return;
+    }
+
+    /** The code table that stores the new binary representation of each byte. */
+    CodeTable table;
+    /** The string that describes the representations in the second line of the file. */
+    String convertedString;
+    /** The fingerprint of the frequencies, or null if there is no cache. */
+    CodeTableCache.Fingerprint key = null;
+    /** The table cached for a file like this one that is good enough to reuse, or null if there is none. */
+    CodeTableCache.Entry cached = null;
+    if (cache != null && storedTable == null) {
+      key = CodeTableCache.fingerprint(worker.frequency);
+      cached = cache.get(key, worker.frequency, descriptionLength(worker.frequency));
+    }
+
+    if (storedTable != null) {
+      table = storedTable;
+      convertedString = storedLine;
+
+    //A cached table is used as it is, so no tree is built
+    } else if (cached != null) {
+      table = cached.getTable();
+      convertedString = cached.getDescription();
+      if (metrics != null) {
+        metrics.endPhase(EncodeMetrics.BUILD);
+      }
+    } else if (canonical || maxBits > 0) {
+      table = HuffmanEncoder.buildTable(worker.frequency, maxBits);
+      if (metrics != null) {
+        metrics.endPhase(EncodeMetrics.BUILD);
+      }
+      convertedString = MzipHeader.LENGTHS_MARK + table.lengthsToString();
+    } else {
+      /** The binary tree used to find the new representation of every byte in the file. */
+      BinaryTree tree = HuffmanEncoder.buildTree(worker.frequency);
+      if (metrics != null) {
+        metrics.endPhase(EncodeMetrics.BUILD);
+      }
+      table = CodeTable.fromTree(tree);
+      convertedString = tree.convertToString();
+    }
+    //A table that was just built is kept for the files that come after
+    if (key != null && cached == null) {
+      cache.put(key, table, convertedString);
+    }
+    if (metrics != null) {
+      metrics.endPhase(EncodeMetrics.ASSIGN);
+    }
+
+    /** The number of bits in the final encoded message. */
+    long numberOfBits = table.encodedBits(worker.frequency);
+
+    /** The header, which is written again once the checksum is known. */
+    MzipHeader header = new MzipHeader(HuffmanCoding.headerName(file.getName()), convertedString, (int)((8 - numberOfBits % 8) % 8));
+    header.setOriginalLength(size);
+
+    //The exact size of the encoded file, header included, is known now, so check again before the second pass
+    if (!HuffmanCoding.saves(header.getLength() + (numberOfBits + 7) / 8, worker.frequency, minSavings)) {
+      store(file, size, metrics);
+      return;
+    }
+
+    //The header is put together in memory so that it is written to the file all at once
+    worker.header.reset();
+    header.write(worker.header);
+
+    /** The stream used to write the .MZIP file, which is not buffered since the encoder packs into its own buffer. */
+    FileOutputStream out = new FileOutputStream(encodedFile(file));
+    /** The stream that finds the checksum of every byte written after the header. */
+    CheckedOutputStream checked = new CheckedOutputStream(out, new CRC32C());
+    try {
+      worker.header.writeTo(out);
+      worker.encoder.setTable(table);
+
+      /** The number of bits that were packed. */
+      long packedBits;
+      if (whole) {
+        packedBits = worker.encoder.encode(ByteBuffer.wrap(worker.buffer, 0, length), checked);
+      } else {
+        in = new FileInputStream(file);
+        try {
+          packedBits = worker.encoder.encode(in, checked);
+        } finally {
+          in.close();
+        }
+      }
+      if (packedBits != numberOfBits) {
+        throw new IOException("The file changed while it was being encoded");
+      }
+      if (metrics != null) {
+        metrics.endPhase(EncodeMetrics.PACK);
+      }
+      header.setChecksum((int)checked.getChecksum().getValue());
+      header.rewrite(out.getChannel());
+    } finally {
+      out.close();
+    }
+
+    fileCount.incrementAndGet();
+    inputBytes.addAndGet(size);
+    outputBytes.addAndGet(worker.header.size() + (numberOfBits + 7) / 8);
+    if (metrics != null) {
+      metrics.endPhase(EncodeMetrics.WRITE);
+      metrics.setSizes(size, worker.header.size() + (numberOfBits + 7) / 8, numberOfBits);
+      listener.encodeFinished(file.getPath(), metrics);
+    }
+  }
+
+  /**
+   * This method finds the .MZIP file that a file of the batch is written to
+   * @param file  the original file
+   * @return        the file next to it with .MZIP added to its whole name
+   */
+
+  static File encodedFile(File file) {
+    return new File(file.getParentFile(), file.getName() + ".MZIP");
+  }
+
+  /**
+   * This method stores a file as it is, after a header that marks it as stored, and counts it with the files that were encoded
+   * @param file      the file being stored
+   * @param size      the number of bytes in the file
+   * @param metrics  the time and allocations of every phase, or null if there is no listener to tell
+   * @throws IOException if the file cannot be copied
+   */
+
+  private void store(File file, long size, EncodeMetrics metrics) throws IOException {
+    /** The .MZIP file that the original bytes are copied into. */
+    File stored = encodedFile(file);
+    HuffmanCoding.writeStored(file.getPath(), stored.getPath(), HuffmanCoding.headerName(file.getName()), null);
+
+    fileCount.incrementAndGet();
+    inputBytes.addAndGet(size);
+    outputBytes.addAndGet(stored.length());
+    if (metrics != null) {
+      metrics.endPhase(EncodeMetrics.WRITE);
+      metrics.setSizes(size, stored.length(), size * 8);
+      listener.encodeFinished(file.getPath(), metrics);
+    }
+  }
+
+  /**
+   * This method finds the length of the string that would describe a table built for a file, without building it,
+   * since the string only depends on which bytes appear
+   * @param frequency  the frequency of every byte in the file
+   * @return                 the number of characters in the string
+   */
+
+  private int descriptionLength(long[] frequency) {
+    /** The number of characters counted so far. */
+    int length = 0;
+
+    //Lengths take one character for every byte that appears, and two for every run of bytes that do not
+    if (canonical || maxBits > 0) {
+      /** A length of one for every byte that appears, which takes as many characters as the real lengths. */
+      int[] lengths = new int[frequency.length];
+      for (int x = 0; x < frequency.length; x++) {
+        lengths[x] = frequency[x] > 0 ? 1 : 0;
+      }
+      return 1 + CodeTable.fromLengths(lengths).lengthsToString().length();
+    }
+
+    //A tree writes every leaf as its signed byte value, and every other node as two brackets and a space
+    for (int x = 0; x < frequency.length; x++) {
+      if (frequency[x] > 0) {
+        length += Byte.toString((byte)x).length() + (length > 0 ? 3 : 0);
+      }
+    }
+    return length;
+  }
+
+  /**
+   * This method returns the number of files encoded so far
+   * @return the number of files
+   */
+
+  public long getFileCount() {
+    return fileCount.get();
+  }
+
+  /**
+   * This method returns the number of original bytes encoded so far
+   * @return the number of bytes
+   */
+
+  public long getInputBytes() {
+    return inputBytes.get();
+  }
+
+  /**
+   * This method returns the number of bytes written to .MZIP files so far
+   * @return the number of bytes
+   */
+
+  public long getOutputBytes() {
+    return outputBytes.get();
+  }
+
+  /**
+   * This method returns the files that could not be encoded
+   * @return every failed file, with the reason
+   */
+
+  public List<String> getFailures() {
+    return failures;
+  }
+
+  /**
+   * [Worker]
+   * The class holds the buffers, counters and encoder that one thread reuses for every file.
+   */
+
+  static class Worker {
+
+    /** The buffer that files are read into. */
+    private byte[] buffer = new byte[FrequencyCounter.BUFFER_SIZE];
+    /** The frequency of every byte in the current file. */
+    private long[] frequency = new long[256];
+    /** The encoder, whose code table is changed for every file. */
+    private HuffmanEncoder encoder = new HuffmanEncoder(null);
+    /** The stream that the header of the current file is put together in. */
+    private ByteArrayOutputStream header = new ByteArrayOutputStream();
+  }
+}
@@ -1,84 +1,195 @@
 /* -------- IMPORTS ---------- */
-import java.util.HashMap;
+import java.util.Arrays;
 /* -------------------------- */
 
 /**
  * [BinaryTree.java]
  * The program holds the binary tree class that is used to map every byte in the original file to a new representation.
  * The connection with the left child represents the bit '0', while the right child represents the bit '1'.
+ * The tree is kept in flat arrays indexed by the number of the node instead of as separate node objects,
+ * so building it only allocates a few arrays, and walking it reads memory in order.
+ * A node is always numbered after both of its children, so every walk goes through the numbers in order instead of
+ * calling itself for every level, which would overflow the stack for a very deep tree.
  * @author Braydon Wang
  * @version 1.0, Oct 22, 2020
  */
 
-class BinaryTree<T> {
-  
-  /** The root node of the binary tree. */
-  private Node<T> root;
-  
+class BinaryTree {
+
+  /** The value given to the children of a leaf, and to the root of an empty tree. */
+  static final int NONE = -1;
+
+  /** The symbol of every leaf, or NONE for a node that has children. */
+  private int[] symbols;
+  /** The number of the left child of every node, or NONE for a leaf. */
+  private int[] left;
+  /** The number of the right child of every node, or NONE for a leaf. */
+  private int[] right;
+  /** The weight of every node, which is the total frequency of the leaves below it. */
+  private long[] weights;
+  /** The number of nodes in the tree. */
+  private int size;
+  /** The number of the root node, or NONE if the tree is empty. */
+  private int root;
+
   /**
-   * Creates an object from the binary tree class.
+   * Creates an object from the binary tree class with room for the given number of leaves.
+   * @param leaves  the number of leaves the tree can hold before it has to grow
    */
-  
-  BinaryTree() {
-    root = null;
+
+  BinaryTree(int leaves) {
+    /** The number of nodes in a tree with that many leaves. */
+    int capacity = Math.max(2 * leaves - 1, 1);
+    symbols = new int[capacity];
+    left = new int[capacity];
+    right = new int[capacity];
+    weights = new long[capacity];
+    size = 0;
+    root = NONE;
   }
-  
+
   /**
-   * This method sets the root of the tree to the specified new root
-   * @param root  the new root of the tree
+   * This method adds a leaf that holds a symbol
+   * @param symbol  the symbol, such as the unsigned value of a byte
+   * @param weight  the frequency of the symbol
+   * @return              the number of the new node
    */
-  
-  public void setRoot(Node<T> root) {
+
+  public int addLeaf(int symbol, long weight) {
+    return addNode(symbol, weight, NONE, NONE);
+  }
+
+  /**
+   * This method adds a node with two children, whose weight is the sum of the weights of its children
+   * @param leftChild    the number of the left child
+   * @param rightChild  the number of the right child
+   * @return                 the number of the new node
+   */
+
+  public int join(int leftChild, int rightChild) {
+    return addNode(NONE, weights[leftChild] + weights[rightChild], leftChild, rightChild);
+  }
+
+  /**
+   * This method sets the root of the tree to the specified node
+   * @param root  the number of the new root, or NONE for an empty tree
+   */
+
+  public void setRoot(int root) {
     this.root = root;
   }
-  
+
   /**
-   * This method finds the new encoded representation of each byte
-   * @param encodedBytes  the hashmap used to store every byte's corresponding representation
+   * This method returns the weight of a node
+   * @param node  the number of the node
+   * @return           the total frequency of the leaves below the node
    */
-  
-  public void findEncodedBytes(HashMap<Byte,String> encodedBytes) {
-    recursiveFindEncodedBytes(encodedBytes,root,"");
+
+  public long getWeight(int node) {
+    return weights[node];
   }
-  
+
   /**
-   * This method recursively traverses the tree to find the encoded representation of every byte
-   * @param encodedBytes  the hashmap used to store every byte's corresponding representation
-   * @param node                 the current node that the method is looking at
-   * @param newByte            the new representation of the byte so far from the traversal
+   * This method finds the new representation of each byte as bits stored in a long
+   * @param codes     the array used to store the bits of every byte's representation
+   * @param lengths  the array used to store the number of bits of every byte's representation
    */
-  
-  public void recursiveFindEncodedBytes(HashMap<Byte,String> encodedBytes, Node<T> node, String newByte) {
-    if (node.isLeaf()) {
-      encodedBytes.put((Byte)node.getItem(),newByte);
+
+  public void findCodes(long[] codes, int[] lengths) {
+    if (root == NONE) {
+      return;
+    }
+    //A tree with a single leaf still needs one bit for every byte so the message can be decoded
+    if (symbols[root] != NONE) {
+      lengths[symbols[root]] = 1;
       return;
     }
-    //Moving to the left child adds the bit '0' to the end of the new representation
-    recursiveFindEncodedBytes(encodedBytes, node.getLeft(), newByte+"0");
-    //Moving to the right child adds the bit '1' to the end of the new representation
-    recursiveFindEncodedBytes(encodedBytes, node.getRight(), newByte+"1");
+
+    /** The bits of the representation of every node. */
+    long[] nodeCodes = new long[root + 1];
+    /** The number of bits of the representation of every node. */
+    int[] depths = new int[root + 1];
+
+    //Children are numbered before their parents, so going down from the root gives every parent its bits before its children
+    for (int node = root; node >= 0; node--) {
+      if (symbols[node] != NONE) {
+        codes[symbols[node]] = nodeCodes[node];
+        lengths[symbols[node]] = depths[node];
+        continue;
+      }
+      //A representation that does not fit in a long cannot be packed by the encoder
+      if (depths[node] == CodeTable.MAX_CODE_LENGTH) {
+        throw new IllegalStateException("Representation is longer than " + CodeTable.MAX_CODE_LENGTH + " bits");
+      }
+      //Moving to the left child adds the bit '0' to the end of the new representation
+      nodeCodes[left[node]] = nodeCodes[node] << 1;
+      depths[left[node]] = depths[node] + 1;
+      //Moving to the right child adds the bit '1' to the end of the new representation
+      nodeCodes[right[node]] = (nodeCodes[node] << 1) | 1;
+      depths[right[node]] = depths[node] + 1;
+    }
   }
-  
+
   /**
-   * This method returns the converted string version of the binary tree
-   * @return the converted string
+   * This method returns the converted string version of the binary tree, with brackets around the children of every node
+   * @return the converted string, or an empty string for an empty tree
    */
-  
+
   public String convertToString() {
-    return recursiveConvertToString(root);
+    /** The string put together so far. */
+    StringBuilder text = new StringBuilder();
+    if (root == NONE) {
+      return "";
+    }
+
+    /** The work left to do, where a node number is written out and a negative value is a character still to be added. */
+    int[] stack = new int[3 * (root + 1) + 1];
+    /** The number of entries on the stack. */
+    int top = 0;
+    stack[top++] = root;
+
+    while (top > 0) {
+      /** The next entry of work. */
+      int entry = stack[--top];
+
+      if (entry < 0) {
+        text.append((char)-entry);
+      } else if (symbols[entry] != NONE) {
+        //A leaf is written as its signed byte value
+        text.append((byte)symbols[entry]);
+      } else {
+        //Enclose the left and right child with brackets, pushing them in reverse so the left child comes out first
+        text.append('(');
+        stack[top++] = -')';
+        stack[top++] = right[entry];
+        stack[top++] = -' ';
+        stack[top++] = left[entry];
+      }
+    }
+    return text.toString();
   }
-  
+
   /**
-   * This method recursively traverses the tree to convert it into a string representation
-   * @param node  the current node being referenced
-   * @return           the converted string
+   * This method adds a node to the end of the arrays
+   * @param symbol       the symbol of a leaf, or NONE
+   * @param weight       the weight of the node
+   * @param leftChild    the number of the left child, or NONE
+   * @param rightChild  the number of the right child, or NONE
+   * @return                 the number of the new node
    */
-  
-  public String recursiveConvertToString(Node<T> node) {
-    if (node.isLeaf()) {
-      return ""+node.getItem();
+
+  private int addNode(int symbol, long weight, int leftChild, int rightChild) {
+    //If the arrays are full, double their size
+    if (size == symbols.length) {
+      symbols = Arrays.copyOf(symbols, size * 2);
+      left = Arrays.copyOf(left, size * 2);
+      right = Arrays.copyOf(right, size * 2);
+      weights = Arrays.copyOf(weights, size * 2);
     }
-    //Enclose the left and right child with brackets
-    return "(" + recursiveConvertToString(node.getLeft()) + " " + recursiveConvertToString(node.getRight()) + ")";
+    symbols[size] = symbol;
+    weights[size] = weight;
+    left[size] = leftChild;
+    right[size] = rightChild;
+    return size++;
   }
-}
\ No newline at end of file
+}
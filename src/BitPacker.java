@@ -0,0 +1,276 @@
+/* -------- IMPORTS ---------- */
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+/* -------------------------- */
+
+/**
+ * [BitPacker.java]
+ * The program holds the bit packer class that places the new representation of every byte into the encoded message.
+ * Representations are shifted into a 64 bit buffer, starting from the most significant bit,
+ * and every time the buffer is full all 8 of its bytes are copied into the output array at once.
+ * When the packer is given a stream, the output array is a fixed-size buffer that is written to the stream whenever it fills up,
+ * so an encoded message of any size can be packed without holding all of it in memory.
+ * Several packers can also share one array, each starting at its own index, to pack interleaved streams side by side.
+ * @author Braydon Wang
+ * @version 1.1, Oct 18, 2026
+ */
+
+class BitPacker {
+
+  /** The array that the packed bytes are written to. */
+  private byte[] output;
+  /** The index of the output array that the next byte is written to. */
+  private int index;
+  /** The stream that the output array is written to when it fills up, or null if the array holds the whole message. */
+  private OutputStream out;
+  /** The number of bytes already written to the stream. */
+  private long written;
+  /** The bits that have been packed but not yet written to the output array. */
+  private long bitBuffer;
+  /** The number of bits that are still free in the bit buffer. */
+  private int freeBits;
+
+  /**
+   * Creates an object from the bit packer class.
+   * @param output  the array that the packed bytes are written to
+   */
+
+  BitPacker(byte[] output) {
+    this(output, 0);
+  }
+
+  /**
+   * Creates an object from the bit packer class that writes into an array from an index.
+   * @param output  the array that the packed bytes are written to
+   * @param offset   the index of the array that the first packed byte is written to
+   */
+
+  BitPacker(byte[] output, int offset) {
+    this.output = output;
+    this.index = offset;
+    this.out = null;
+    this.written = 0;
+    this.bitBuffer = 0;
+    this.freeBits = 64;
+  }
+
+  /**
+   * Creates an object from the bit packer class that writes the packed bytes to a stream.
+   * @param out            the stream that the packed bytes are written to
+   * @param bufferSize  the number of packed bytes held before they are written to the stream, at least 8
+   */
+
+  BitPacker(OutputStream out, int bufferSize) {
+    this(new byte[Math.max(bufferSize, 8)]);
+    this.out = out;
+  }
+
+  /**
+   * This method empties the packer so that it can be used for another message
+   * @param out  the stream that the packed bytes of the next message are written to
+   */
+
+  public void reset(OutputStream out) {
+    this.out = out;
+    this.index = 0;
+    this.written = 0;
+    this.bitBuffer = 0;
+    this.freeBits = 64;
+  }
+
+  /**
+   * This method returns the number of packed bytes so far, including the ones already written to the stream
+   * @return the number of packed bytes
+   */
+
+  public long getNumberOfBytes() {
+    return written + index;
+  }
+
+  /**
+   * This method returns the number of packed bits so far, including the ones still waiting in the bit buffer
+   * @return the number of packed bits
+   */
+
+  public long getNumberOfBits() {
+    return (written + index) * 8 + 64 - freeBits;
+  }
+
+  /**
+   * This method packs the representation of every byte in a section of an array
+   * @param data      the array holding the original bytes
+   * @param offset   the index of the first byte to pack
+   * @param length   the number of bytes to pack
+   * @param table     the code table holding every byte's representation
+   * @throws IOException if the packed bytes cannot be written to the stream
+   */
+
+  public void pack(byte[] data, int offset, int length, CodeTable table) throws IOException {
+    /** The bits of every byte's representation. */
+    long[] codes = table.getCodes();
+    /** The number of bits of every byte's representation. */
+    int[] lengths = table.getLengths();
+
+    for (int i = offset; i < offset + length; i++) {
+      /** The unsigned value of the current byte. */
+      int x = data[i] & 0xFF;
+      write(codes[x], lengths[x]);
+    }
+  }
+
+  /**
+   * This method packs the representation of every remaining byte in a buffer, without moving the buffer's position
+   * @param data     the buffer holding the original bytes
+   * @param table     the code table holding every byte's representation
+   * @throws IOException if the packed bytes cannot be written to the stream
+   */
+
+  public void pack(ByteBuffer data, CodeTable table) throws IOException {
+    /** The bits of every byte's representation. */
+    long[] codes = table.getCodes();
+    /** The number of bits of every byte's representation. */
+    int[] lengths = table.getLengths();
+
+    for (int i = data.position(); i < data.limit(); i++) {
+      /** The unsigned value of the current byte. */
+      int x = data.get(i) & 0xFF;
+      write(codes[x], lengths[x]);
+    }
+  }
+
+  /**
+   * This method deals the bytes of a section of an array out to several packers in turn, so that byte i goes to packer i % packers.length.
+   * With four packers, four bytes are packed in every pass of the loop, and since every packer keeps its own bit buffer and position,
+   * the four representations do not wait for each other and the processor can work on them at the same time.
+   * @param packers  the packer of every stream
+   * @param data       the array holding the original bytes
+   * @param offset    the index of the first byte to pack
+   * @param length    the number of bytes to pack
+   * @param table      the code table holding every byte's representation
+   * @throws IOException if the packed bytes cannot be written to a stream
+   */
+
+  public static void packInterleaved(BitPacker[] packers, byte[] data, int offset, int length, CodeTable table) throws IOException {
+    /** The bits of every byte's representation. */
+    long[] codes = table.getCodes();
+    /** The number of bits of every byte's representation. */
+    int[] lengths = table.getLengths();
+    /** The index of the next byte to pack. */
+    int i = offset;
+
+    //The four streams are packed side by side, one byte each, for as long as there is a byte for every stream
+    if (packers.length == 4) {
+      /** The packer of the first stream. */
+      BitPacker p0 = packers[0];
+      /** The packer of the second stream. */
+      BitPacker p1 = packers[1];
+      /** The packer of the third stream. */
+      BitPacker p2 = packers[2];
+      /** The packer of the fourth stream. */
+      BitPacker p3 = packers[3];
+      for (; i + 4 <= offset + length; i += 4) {
+        /** The unsigned value of the byte for the first stream. */
+        int x0 = data[i] & 0xFF;
+        /** The unsigned value of the byte for the second stream. */
+        int x1 = data[i + 1] & 0xFF;
+        /** The unsigned value of the byte for the third stream. */
+        int x2 = data[i + 2] & 0xFF;
+        /** The unsigned value of the byte for the fourth stream. */
+        int x3 = data[i + 3] & 0xFF;
+        p0.write(codes[x0], lengths[x0]);
+        p1.write(codes[x1], lengths[x1]);
+        p2.write(codes[x2], lengths[x2]);
+        p3.write(codes[x3], lengths[x3]);
+      }
+    }
+
+    //The bytes left over, or every byte for another number of streams, are dealt out one at a time
+    for (; i < offset + length; i++) {
+      /** The unsigned value of the current byte. */
+      int x = data[i] & 0xFF;
+      packers[(i - offset) % packers.length].write(codes[x], lengths[x]);
+    }
+  }
+
+  /**
+   * This method adds a single representation to the end of the packed bits
+   * @param code     the bits of the representation, right-aligned
+   * @param length  the number of bits in the representation
+   * @throws IOException if the packed bytes cannot be written to the stream
+   */
+
+  public void write(long code, int length) throws IOException {
+    //If the representation fits, shift it in right after the bits already in the buffer
+    if (length < freeBits) {
+      bitBuffer |= code << (freeBits - length);
+      freeBits -= length;
+
+    //Otherwise fill the rest of the buffer, write it out and start the next buffer with the remaining bits
+    } else {
+      /** The number of bits that do not fit in the current buffer. */
+      int overflow = length - freeBits;
+      bitBuffer |= code >>> overflow;
+      flushWord();
+      if (overflow > 0) {
+        bitBuffer = code << (64 - overflow);
+        freeBits = 64 - overflow;
+      }
+    }
+  }
+
+  /**
+   * This method writes the remaining bits to the output array, filling the last byte with zeros
+   * and writes everything left in the output array to the stream, if there is one
+   * @return the number of extra zero bits placed at the end of the last byte
+   * @throws IOException if the packed bytes cannot be written to the stream
+   */
+
+  public int finish() throws IOException {
+    /** The number of bits still waiting in the buffer. */
+    int usedBits = 64 - freeBits;
+    /** The number of bytes needed to hold the remaining bits. */
+    int numberOfBytes = (usedBits + 7) / 8;
+
+    if (out != null && index > output.length - 8) {
+      drain();
+    }
+    for (int i = 0; i < numberOfBytes; i++) {
+      output[index++] = (byte)(bitBuffer >>> (56 - 8 * i));
+    }
+    if (out != null) {
+      drain();
+    }
+    bitBuffer = 0;
+    freeBits = 64;
+    return numberOfBytes * 8 - usedBits;
+  }
+
+  /**
+   * This method writes the full bit buffer to the output array as 8 bytes and empties it
+   * @throws IOException if the output array is full and cannot be written to the stream
+   */
+
+  private void flushWord() throws IOException {
+    //Make room in the output array by writing it to the stream
+    if (out != null && index > output.length - 8) {
+      drain();
+    }
+    for (int shift = 56; shift >= 0; shift -= 8) {
+      output[index++] = (byte)(bitBuffer >>> shift);
+    }
+    bitBuffer = 0;
+    freeBits = 64;
+  }
+
+  /**
+   * This method writes the packed bytes in the output array to the stream and empties the array
+   * @throws IOException if the bytes cannot be written
+   */
+
+  private void drain() throws IOException {
+    out.write(output, 0, index);
+    written += index;
+    index = 0;
+  }
+}
@@ -0,0 +1,156 @@
+/* -------- IMPORTS ---------- */
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+/* -------------------------- */
+
+/**
+ * [BitReader.java]
+ * The program holds the bit reader class that reads the encoded message one group of bits at a time.
+ * Bytes are read from the stream in large chunks and shifted into a 64 bit buffer, starting from the most significant bit,
+ * so that the next few bits can be looked at without reading them from the stream one at a time.
+ * The bits can also be read straight from a buffer or a section of an array in memory instead of a stream.
+ * Once the stream has ended, the bits after the end are read as zeros.
+ * @author Braydon Wang
+ * @version 1.1, Oct 18, 2026
+ */
+
+class BitReader {
+
+  /** The number of bytes read from the stream in every chunk. */
+  static final int BUFFER_SIZE = 1 << 16;
+
+  /** The stream that the encoded message is read from, or null if it is read from a buffer. */
+  private InputStream in;
+  /** The buffer that the encoded message is read from, or null if it is read from a stream. */
+  private ByteBuffer source;
+  /** The chunk of the stream currently being read. */
+  private byte[] buffer;
+  /** The index of the next byte in the chunk. */
+  private int position;
+  /** The number of bytes in the chunk. */
+  private int limit;
+  /** The bits waiting to be read, starting from the most significant bit. */
+  private long bitBuffer;
+  /** The number of bits waiting to be read in the bit buffer. */
+  private int bitCount;
+
+  /**
+   * Creates an object from the bit reader class.
+   * @param in  the stream that the encoded message is read from
+   */
+
+  BitReader(InputStream in) {
+    this.in = in;
+    this.buffer = new byte[BUFFER_SIZE];
+    this.position = 0;
+    this.limit = 0;
+    this.bitBuffer = 0;
+    this.bitCount = 0;
+  }
+
+  /**
+   * Creates an object from the bit reader class that reads from a buffer.
+   * The buffer's position moves forward as bytes are taken into the bit buffer.
+   * @param source  the buffer that the encoded message is read from
+   */
+
+  BitReader(ByteBuffer source) {
+    this.in = null;
+    this.source = source;
+    this.buffer = null;
+    this.position = 0;
+    this.limit = 0;
+    this.bitBuffer = 0;
+    this.bitCount = 0;
+  }
+
+  /**
+   * Creates an object from the bit reader class that reads a section of an array.
+   * @param data      the array holding the encoded message
+   * @param offset   the index of the first byte of the encoded message
+   * @param length   the number of bytes in the encoded message
+   */
+
+  BitReader(byte[] data, int offset, int length) {
+    this.in = null;
+    this.source = null;
+    this.buffer = data;
+    this.position = offset;
+    this.limit = offset + length;
+    this.bitBuffer = 0;
+    this.bitCount = 0;
+  }
+
+  /**
+   * This method looks at the next bits without reading them
+   * @param n  the number of bits to look at, from 1 to 32
+   * @return    the next n bits, right-aligned
+   * @throws IOException if the stream cannot be read
+   */
+
+  public int peek(int n) throws IOException {
+    if (bitCount < n) {
+      refill();
+    }
+    return (int)(bitBuffer >>> (64 - n));
+  }
+
+  /**
+   * This method moves past bits that have already been looked at
+   * @param n  the number of bits to move past
+   */
+
+  public void skip(int n) {
+    bitBuffer <<= n;
+    bitCount -= n;
+  }
+
+  /**
+   * This method reads the next bits
+   * @param n  the number of bits to read, from 1 to 32
+   * @return    the next n bits, right-aligned
+   * @throws IOException if the stream cannot be read
+   */
+
+  public int read(int n) throws IOException {
+    /** The bits that were read. */
+    int bits = peek(n);
+    skip(n);
+    return bits;
+  }
+
+  /**
+   * This method fills the bit buffer with as many whole bytes as it can hold
+   * @throws IOException if the stream cannot be read
+   */
+
+  private void refill() throws IOException {
+    //Bytes from a buffer are taken straight into the bit buffer
+    if (source != null) {
+      while (bitCount <= 56 && source.hasRemaining()) {
+        bitBuffer |= (long)(source.get() & 0xFF) << (56 - bitCount);
+        bitCount += 8;
+      }
+      return;
+    }
+
+    while (bitCount <= 56) {
+      //Read the next chunk once the current one is used up
+      if (position == limit) {
+        //A section of an array has nothing more to read once it is used up
+        if (in == null) {
+          return;
+        }
+        limit = in.read(buffer);
+        position = 0;
+        if (limit <= 0) {
+          limit = 0;
+          return;
+        }
+      }
+      bitBuffer |= (long)(buffer[position++] & 0xFF) << (56 - bitCount);
+      bitCount += 8;
+    }
+  }
+}
@@ -0,0 +1,185 @@
+/* -------- IMPORTS ---------- */
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+/* -------------------------- */
+
+/**
+ * [BlockDecoder.java]
+ * The program holds the block decoder class that reads a .MZIP file that was split into blocks.
+ * The block index at the end of the file gives the number of bits in every block, which is enough to find where every block starts,
+ * so any single block can be decoded on its own and several blocks can be decoded at the same time by a pool of threads.
+ * A block split into interleaved streams has the number of bits of every stream in the index, and its streams are decoded side by side.
+ * @author Braydon Wang
+ * @version 1.1, Oct 18, 2026
+ */
+
+class BlockDecoder {
+
+  /** The header at the start of the file. */
+  private MzipHeader header;
+  /** The code table holding every byte's representation. */
+  private CodeTable table;
+  /** The channel used to read the blocks from any position of the file. */
+  private FileChannel channel;
+  /** The position in the file where every block starts, with one extra position for the end of the last block. */
+  private long[] offsets;
+  /** The number of bits in every stream of every block's encoded message, with the streams of a block next to each other. */
+  private long[] blockBits;
+  /** The number of interleaved streams in every block. */
+  private int streams;
+
+  /**
+   * Creates an object from the block decoder class and reads the block index.
+   * @param file     the .MZIP file, opened for reading
+   * @param header  the header at the start of the file
+   * @param table    the code table holding every byte's representation
+   * @throws IOException if the block index cannot be read
+   */
+
+  BlockDecoder(RandomAccessFile file, MzipHeader header, CodeTable table) throws IOException {
+    this.header = header;
+    this.table = table;
+    this.channel = file.getChannel();
+    this.streams = header.getStreamCount();
+
+    //The number of blocks is the last 8 bytes of the file, and the bits of every block come right before it
+    file.seek(file.length() - 8);
+    /** The number of blocks in the file. */
+    long blocks = file.readLong();
+    if (blocks < 0 || blocks * streams * 8 + 8 > file.length() - header.getLength()) {
+      throw new IOException("Not a valid .MZIP block index");
+    }
+    file.seek(file.length() - 8 - blocks * streams * 8);
+
+    blockBits = new long[(int)blocks * streams];
+    offsets = new long[(int)blocks + 1];
+    offsets[0] = header.getLength();
+    for (int i = 0; i < blocks; i++) {
+      offsets[i + 1] = offsets[i];
+      //Every stream of a block starts on a new byte
+      for (int s = 0; s < streams; s++) {
+        blockBits[i * streams + s] = file.readLong();
+        offsets[i + 1] += (blockBits[i * streams + s] + 7) / 8;
+      }
+    }
+  }
+
+  /**
+   * This method returns the number of blocks in the file
+   * @return the number of blocks
+   */
+
+  public int getBlockCount() {
+    return offsets.length - 1;
+  }
+
+  /**
+   * This method decodes a single block
+   * @param index  the index of the block
+   * @return           the original bytes of the block
+   * @throws IOException if the block cannot be read or decoded
+   */
+
+  public byte[] readBlock(int index) throws IOException {
+    /** The encoded message of the block. */
+    ByteBuffer encoded = ByteBuffer.allocate((int)(offsets[index + 1] - offsets[index]));
+    //Reading from a position does not move the channel, so several threads can read blocks at once
+    while (encoded.hasRemaining()) {
+      if (channel.read(encoded, offsets[index] + encoded.position()) == -1) {
+        throw new IOException("The file ended inside block " + index);
+      }
+    }
+
+    //The streams of an interleaved block are read from their own parts of the encoded block
+    if (streams > 1) {
+      /** The bit reader of every stream. */
+      BitReader[] readers = new BitReader[streams];
+      /** The number of bits in every stream. */
+      long[] streamBits = Arrays.copyOfRange(blockBits, index * streams, (index + 1) * streams);
+      /** The index in the encoded block where the next stream starts. */
+      int start = 0;
+      for (int s = 0; s < streams; s++) {
+        /** The number of bytes in the stream. */
+        int size = (int)((streamBits[s] + 7) / 8);
+        readers[s] = new BitReader(encoded.array(), start, size);
+        start += size;
+      }
+      /** The original bytes of the block, which only the last block does not fill. */
+      byte[] block = new byte[header.getBlockSize()];
+      return Arrays.copyOf(block, new HuffmanDecoder(table).decodeInterleaved(readers, streamBits, block));
+    }
+
+    /** The original bytes of the block. */
+    ByteArrayOutputStream out = new ByteArrayOutputStream(header.getBlockSize());
+    new HuffmanDecoder(table).decode(new BitReader(new ByteArrayInputStream(encoded.array())), blockBits[index], out);
+    return out.toByteArray();
+  }
+
+  /**
+   * This method decodes every block with a pool of threads and writes the original bytes in order
+   * @param out         the stream that the original bytes are written to
+   * @param threads  the number of threads that decode blocks
+   * @throws IOException if a block cannot be read or decoded, or the bytes cannot be written
+   */
+
+  public void decodeAll(OutputStream out, int threads) throws IOException {
+    /** The pool of threads that decode the blocks. */
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    /** The blocks being decoded, in order. */
+    ArrayDeque<Future<byte[]>> pending = new ArrayDeque<Future<byte[]>>();
+
+    try {
+      for (int i = 0; i < getBlockCount(); i++) {
+        /** The index of the block being decoded. */
+        final int index = i;
+        pending.add(pool.submit(new Callable<byte[]>() {
+          public byte[] call() throws IOException {
+            return readBlock(index);
+          }
+        }));
+
+        //Write the oldest block once enough blocks are waiting, so that only a few blocks are held in memory
+        if (pending.size() >= 2 * threads) {
+          out.write(waitFor(pending.poll()));
+        }
+      }
+
+      //Write the blocks that are still waiting
+      while (!pending.isEmpty()) {
+        out.write(waitFor(pending.poll()));
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  /**
+   * This method waits for a block to be decoded
+   * @param block  the block being decoded
+   * @return           the original bytes of the block
+   * @throws IOException if the block could not be decoded
+   */
+
+  private static byte[] waitFor(Future<byte[]> block) throws IOException {
+    try {
+      return block.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while decoding a block", e);
+    } catch (ExecutionException e) {
+      throw new IOException("A block could not be decoded", e.getCause());
+    }
+  }
+}
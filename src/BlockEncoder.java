@@ -0,0 +1,353 @@
+/* -------- IMPORTS ---------- */
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+/* -------------------------- */
+
+/**
+ * [BlockEncoder.java]
+ * The program holds the block encoder class that splits the original file into blocks of the same size
+ * and encodes every block on its own, so that several blocks can be encoded at the same time by a pool of threads.
+ * Every block uses the same code table, and its encoded message is filled with zeros up to the next whole byte.
+ * The blocks are written in order, followed by the block index: the number of bits in every block's encoded message
+ * and then the number of blocks, each written as an 8 byte number.
+ * A block can also be split into several interleaved streams, where byte i of the block goes to stream i % streams,
+ * so that the representations of neighbouring bytes are packed, and later decoded, side by side instead of one after another.
+ * Every stream then starts on a new byte, and the block index holds the number of bits in every stream instead of every block.
+ * @author Braydon Wang
+ * @version 1.1, Oct 18, 2026
+ */
+
+class BlockEncoder {
+
+  /** The number of original bytes in every block when the blocks are only asked for by the -interleave option. */
+  static final int DEFAULT_BLOCK_SIZE = 1 << 20;
+
+  /** The code table holding every byte's representation. */
+  private CodeTable table;
+  /** The number of original bytes in every block. */
+  private int blockSize;
+  /** The number of threads that encode blocks. */
+  private int threads;
+  /** The number of interleaved streams that every block is split into. */
+  private int streams;
+
+  /**
+   * Creates an object from the block encoder class.
+   * @param table        the code table holding every byte's representation
+   * @param blockSize  the number of original bytes in every block
+   * @param threads     the number of threads that encode blocks
+   */
+
+  BlockEncoder(CodeTable table, int blockSize, int threads) {
+    this(table, blockSize, threads, 1);
+  }
+
+  /**
+   * Creates an object from the block encoder class that splits every block into interleaved streams.
+   * @param table        the code table holding every byte's representation
+   * @param blockSize  the number of original bytes in every block
+   * @param threads     the number of threads that encode blocks
+   * @param streams     the number of interleaved streams in every block, or 1 for a single stream
+   */
+
+  BlockEncoder(CodeTable table, int blockSize, int threads, int streams) {
+    this.table = table;
+    this.blockSize = blockSize;
+    this.threads = threads;
+    this.streams = streams;
+  }
+
+  /**
+   * This method encodes every block of the original bytes and writes the blocks and the block index
+   * @param in   the stream that the original bytes are read from
+   * @param out  the stream that the encoded blocks are written to, placed right after the header
+   * @throws IOException if the bytes cannot be read or written, or a block cannot be encoded
+   */
+
+  public void encode(InputStream in, OutputStream out) throws IOException {
+    /** The pool of threads that encode the blocks. */
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    /** The blocks being encoded, in the order they were read. */
+    ArrayDeque<Future<EncodedBlock>> pending = new ArrayDeque<Future<EncodedBlock>>();
+    /** The number of bits in every stream of every block's encoded message. */
+    long[] blockBits = new long[16];
+    /** The number of blocks written so far. */
+    int blocks = 0;
+    /** The number of entries of the block index so far. */
+    int entries = 0;
+
+    try {
+      while (true) {
+        /** The original bytes of the next block. */
+        final byte[] data = new byte[blockSize];
+        /** The number of bytes in the block, which is only less than the block size for the last block. */
+        final int length = readFully(in, data);
+        if (length == 0) {
+          break;
+        }
+
+        pending.add(pool.submit(new Callable<EncodedBlock>() {
+          public EncodedBlock call() throws IOException {
+            return encodeBlock(data, length);
+          }
+        }));
+
+        //Write the oldest block once enough blocks are waiting, so that only a few blocks are held in memory
+        if (pending.size() >= 2 * threads) {
+          for (long bits: writeBlock(pending.poll(), out)) {
+            blockBits = append(blockBits, entries++, bits);
+          }
+          blocks++;
+        }
+      }
+
+      //Write the blocks that are still waiting
+      while (!pending.isEmpty()) {
+        for (long bits: writeBlock(pending.poll(), out)) {
+          blockBits = append(blockBits, entries++, bits);
+        }
+        blocks++;
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+
+    //Write the block index at the end of the file
+    /** The stream used to write 8 byte numbers. */
+    DataOutputStream index = new DataOutputStream(out);
+    for (int i = 0; i < entries; i++) {
+      index.writeLong(blockBits[i]);
+    }
+    index.writeLong(blocks);
+    index.flush();
+  }
+
+  /**
+   * This method encodes the original bytes of a single block
+   * @param data     the original bytes of the block
+   * @param length  the number of bytes in the block
+   * @return            the encoded block
+   * @throws IOException never, since the block is packed into an array
+   */
+
+  public EncodedBlock encodeBlock(byte[] data, int length) throws IOException {
+    if (streams > 1) {
+      return encodeInterleaved(data, length);
+    }
+    /** The number of bits of every byte's representation. */
+    int[] lengths = table.getLengths();
+    /** The number of bits in the block's encoded message. */
+    long numberOfBits = 0;
+    for (int i = 0; i < length; i++) {
+      numberOfBits += lengths[data[i] & 0xFF];
+    }
+
+    /** The encoded message of the block. */
+    byte[] encoded = new byte[(int)((numberOfBits + 7) / 8)];
+    /** The bit packer that shifts every representation into the encoded message. */
+    BitPacker packer = new BitPacker(encoded);
+    packer.pack(data, 0, length, table);
+    packer.finish();
+    return new EncodedBlock(encoded, numberOfBits);
+  }
+
+  /**
+   * This method encodes the original bytes of a single block into interleaved streams that are placed one after another
+   * @param data     the original bytes of the block
+   * @param length  the number of bytes in the block
+   * @return            the encoded block
+   * @throws IOException never, since the streams are packed into an array
+   */
+
+  private EncodedBlock encodeInterleaved(byte[] data, int length) throws IOException {
+    /** The number of bits of every byte's representation. */
+    int[] lengths = table.getLengths();
+    /** The number of bits in every stream. */
+    long[] streamBits = new long[streams];
+    /** The index of the next byte to count. */
+    int i = 0;
+
+    //With four streams, the bits of every stream are counted side by side in their own sums
+    if (streams == 4) {
+      /** The number of bits in the first stream. */
+      long bits0 = 0;
+      /** The number of bits in the second stream. */
+      long bits1 = 0;
+      /** The number of bits in the third stream. */
+      long bits2 = 0;
+      /** The number of bits in the fourth stream. */
+      long bits3 = 0;
+      for (; i + 4 <= length; i += 4) {
+        bits0 += lengths[data[i] & 0xFF];
+        bits1 += lengths[data[i + 1] & 0xFF];
+        bits2 += lengths[data[i + 2] & 0xFF];
+        bits3 += lengths[data[i + 3] & 0xFF];
+      }
+      streamBits[0] = bits0;
+      streamBits[1] = bits1;
+      streamBits[2] = bits2;
+      streamBits[3] = bits3;
+    }
+    for (; i < length; i++) {
+      streamBits[i % streams] += lengths[data[i] & 0xFF];
+    }
+
+    /** The packer of every stream, each starting where the stream before it ends. */
+    BitPacker[] packers = new BitPacker[streams];
+    /** The number of bytes in all the streams. */
+    int size = 0;
+    for (int s = 0; s < streams; s++) {
+      size += (int)((streamBits[s] + 7) / 8);
+    }
+    /** The encoded streams of the block. */
+    byte[] encoded = new byte[size];
+    /** The index where the next stream starts. */
+    int offset = 0;
+    for (int s = 0; s < streams; s++) {
+      packers[s] = new BitPacker(encoded, offset);
+      offset += (int)((streamBits[s] + 7) / 8);
+    }
+
+    BitPacker.packInterleaved(packers, data, 0, length, table);
+    for (BitPacker packer: packers) {
+      packer.finish();
+    }
+    return new EncodedBlock(encoded, streamBits);
+  }
+
+  /**
+   * This method waits for a block to be encoded and writes its encoded message
+   * @param block  the block being encoded
+   * @param out     the stream that the encoded message is written to
+   * @return           the number of bits in every stream of the block's encoded message
+   * @throws IOException if the message cannot be written or the block could not be encoded
+   */
+
+  private static long[] writeBlock(Future<EncodedBlock> block, OutputStream out) throws IOException {
+    /** The encoded block. */
+    EncodedBlock encoded;
+    try {
+      encoded = block.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while encoding a block", e);
+    } catch (ExecutionException e) {
+      throw new IOException("A block could not be encoded", e.getCause());
+    }
+    out.write(encoded.getData());
+    return encoded.getStreamBits();
+  }
+
+  /**
+   * This method reads bytes until the array is full or the stream ends
+   * @param in     the stream that the bytes are read from
+   * @param data  the array that the bytes are read into
+   * @return         the number of bytes read
+   * @throws IOException if the stream cannot be read
+   */
+
+  static int readFully(InputStream in, byte[] data) throws IOException {
+    /** The number of bytes read so far. */
+    int length = 0;
+    while (length < data.length) {
+      /** The number of bytes read this time. */
+      int count = in.read(data, length, data.length - length);
+      if (count == -1) {
+        break;
+      }
+      length += count;
+    }
+    return length;
+  }
+
+  /**
+   * This method sets a value in an array, making the array larger if the index does not fit
+   * @param array   the array that the value is placed in
+   * @param index   the index of the value
+   * @param value   the value being placed
+   * @return           the array holding the value, which is a new array if it had to grow
+   */
+
+  private static long[] append(long[] array, int index, long value) {
+    if (index == array.length) {
+      array = Arrays.copyOf(array, array.length * 2);
+    }
+    array[index] = value;
+    return array;
+  }
+
+  /**
+   * [EncodedBlock]
+   * The class holds the encoded message of a single block and the number of bits in it, and in each of its streams.
+   */
+
+  static class EncodedBlock {
+
+    /** The encoded message, filled with zeros up to the next whole byte. */
+    private byte[] data;
+    /** The number of bits in the encoded message, not counting the zeros at the end. */
+    private long numberOfBits;
+    /** The number of bits in every stream of the encoded message, not counting the zeros at the end of each. */
+    private long[] streamBits;
+
+    /**
+     * Creates an object from the encoded block class.
+     * @param data                the encoded message
+     * @param numberOfBits  the number of bits in the encoded message
+     */
+
+    EncodedBlock(byte[] data, long numberOfBits) {
+      this(data, new long[] {numberOfBits});
+    }
+
+    /**
+     * Creates an object from the encoded block class for a block split into streams.
+     * @param data            the encoded streams, one after another
+     * @param streamBits  the number of bits in every stream
+     */
+
+    EncodedBlock(byte[] data, long[] streamBits) {
+      this.data = data;
+      this.streamBits = streamBits;
+      for (long bits: streamBits) {
+        this.numberOfBits += bits;
+      }
+    }
+
+    /**
+     * This method returns the encoded message
+     * @return the encoded message
+     */
+
+    public byte[] getData() {
+      return this.data;
+    }
+
+    /**
+     * This method returns the number of bits in the encoded message
+     * @return the number of bits
+     */
+
+    public long getNumberOfBits() {
+      return this.numberOfBits;
+    }
+
+    /**
+     * This method returns the number of bits in every stream of the encoded message
+     * @return the number of bits in every stream
+     */
+
+    public long[] getStreamBits() {
+      return this.streamBits;
+    }
+  }
+}
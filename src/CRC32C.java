@@ -0,0 +1,111 @@
+/* -------- IMPORTS ---------- */
+import java.util.zip.Checksum;
+/* -------------------------- */
+
+/**
+ * [CRC32C.java]
+ * The program holds the CRC32C class that finds the CRC-32C (Castagnoli) checksum of a stream of bytes.
+ * The checksum is updated a chunk at a time as the bytes are written or read, so it never needs the whole file in memory.
+ * Eight bytes are handled in every step with eight lookup tables ("slicing by 8"), instead of one byte at a time with a single table.
+ * The JDK only has its own CRC32C class from Java 9, so this one is used to keep the program running on Java 8.
+ * @author Braydon Wang
+ * @version 1.1, Oct 18, 2026
+ */
+
+class CRC32C implements Checksum {
+
+  /** The reversed Castagnoli polynomial. */
+  static final int POLYNOMIAL = 0x82F63B78;
+  /** The lookup tables, where table k gives the effect of a byte followed by k zero bytes. */
+  private static final int[][] TABLES = createTables();
+
+  /** The checksum so far, before its bits are flipped. */
+  private int crc;
+
+  /**
+   * Creates an object from the CRC32C class.
+   */
+
+  CRC32C() {
+    reset();
+  }
+
+  /**
+   * This method adds a single byte to the checksum
+   * @param b  the byte being added
+   */
+
+  public void update(int b) {
+    crc = (crc >>> 8) ^ TABLES[0][(crc ^ b) & 0xFF];
+  }
+
+  /**
+   * This method adds a section of an array to the checksum
+   * @param b        the array holding the bytes
+   * @param off      the index of the first byte
+   * @param len      the number of bytes
+   */
+
+  public void update(byte[] b, int off, int len) {
+    /** The checksum so far, kept in a local variable while the loop runs. */
+    int c = crc;
+    /** The index after the last byte. */
+    int end = off + len;
+
+    //Eight bytes at a time while there are enough of them
+    while (off + 8 <= end) {
+      c ^= (b[off] & 0xFF) | (b[off + 1] & 0xFF) << 8 | (b[off + 2] & 0xFF) << 16 | (b[off + 3] & 0xFF) << 24;
+      c = TABLES[7][c & 0xFF] ^ TABLES[6][(c >>> 8) & 0xFF] ^ TABLES[5][(c >>> 16) & 0xFF] ^ TABLES[4][c >>> 24]
+        ^ TABLES[3][b[off + 4] & 0xFF] ^ TABLES[2][b[off + 5] & 0xFF] ^ TABLES[1][b[off + 6] & 0xFF] ^ TABLES[0][b[off + 7] & 0xFF];
+      off += 8;
+    }
+    //The bytes that are left are added one at a time
+    while (off < end) {
+      c = (c >>> 8) ^ TABLES[0][(c ^ b[off++]) & 0xFF];
+    }
+    crc = c;
+  }
+
+  /**
+   * This method returns the checksum of every byte added so far
+   * @return the checksum, as an unsigned 32 bit value
+   */
+
+  public long getValue() {
+    return ~crc & 0xFFFFFFFFL;
+  }
+
+  /**
+   * This method starts the checksum again as if no bytes had been added
+   */
+
+  public void reset() {
+    crc = 0xFFFFFFFF;
+  }
+
+  /**
+   * This method creates the eight lookup tables
+   * @return the lookup tables
+   */
+
+  private static int[][] createTables() {
+    /** The lookup tables. */
+    int[][] tables = new int[8][256];
+
+    for (int x = 0; x < 256; x++) {
+      /** The checksum of the single byte x. */
+      int c = x;
+      for (int bit = 0; bit < 8; bit++) {
+        c = (c & 1) != 0 ? (c >>> 1) ^ POLYNOMIAL : c >>> 1;
+      }
+      tables[0][x] = c;
+    }
+    //Every later table adds one more zero byte after the byte
+    for (int k = 1; k < 8; k++) {
+      for (int x = 0; x < 256; x++) {
+        tables[k][x] = (tables[k - 1][x] >>> 8) ^ tables[0][tables[k - 1][x] & 0xFF];
+      }
+    }
+    return tables;
+  }
+}
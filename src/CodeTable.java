@@ -0,0 +1,233 @@
+/**
+ * [CodeTable.java]
+ * The program holds the code table class that stores the new representation of every byte as a pair of numbers.
+ * The bits of each representation are kept right-aligned in a long, together with the number of bits that are used.
+ * This lets the encoder shift whole representations into a word instead of building strings of '0' and '1'.
+ * @author Braydon Wang
+ * @version 1.1, Oct 18, 2026
+ */
+
+class CodeTable {
+
+  /** The longest representation that can be held in a single long. */
+  static final int MAX_CODE_LENGTH = 64;
+  /** The character that marks a run of bytes that do not appear in the string form of the lengths. */
+  static final char ABSENT_RUN = '!';
+
+  /** The bits of every byte's representation, indexed by the unsigned value of the byte. */
+  private long[] codes;
+  /** The number of bits in every byte's representation, or 0 if the byte does not appear. */
+  private int[] lengths;
+
+  /**
+   * Creates an object from the code table class.
+   * @param codes     the bits of every byte's representation
+   * @param lengths  the number of bits in every byte's representation
+   */
+
+  CodeTable(long[] codes, int[] lengths) {
+    this.codes = codes;
+    this.lengths = lengths;
+  }
+
+  /**
+   * This method creates a code table from the representations found by traversing a binary tree
+   * @param tree  the binary tree built from the frequency of every byte
+   * @return          the code table holding every byte's representation
+   */
+
+  public static CodeTable fromTree(BinaryTree tree) {
+    /** The bits of every byte's representation. */
+    long[] codes = new long[256];
+    /** The number of bits in every byte's representation. */
+    int[] lengths = new int[256];
+    tree.findCodes(codes, lengths);
+    return new CodeTable(codes, lengths);
+  }
+
+  /**
+   * This method creates a code table from the string version of a binary tree, where every node is written as
+   * a bracket around its left and right child separated by a space, and every leaf is written as its byte value.
+   * The string is read from left to right while keeping track of the representation of the current position in the tree.
+   * @param str  the string version of the binary tree
+   * @return       the code table holding every byte's representation
+   */
+
+  public static CodeTable fromTreeString(String str) {
+    /** The bits of every byte's representation. */
+    long[] codes = new long[256];
+    /** The number of bits in every byte's representation. */
+    int[] lengths = new int[256];
+    /** The representation of the current position in the tree. */
+    long code = 0;
+    /** The depth of the current position in the tree. */
+    int length = 0;
+
+    for (int i = 0; i < str.length(); i++) {
+      /** The current character of the string. */
+      char c = str.charAt(i);
+
+      //An opening bracket moves down to the left child, which adds the bit '0'
+      if (c == '(') {
+        if (length == MAX_CODE_LENGTH) {
+          throw new IllegalArgumentException("Representation is longer than " + MAX_CODE_LENGTH + " bits");
+        }
+        code <<= 1;
+        length++;
+
+      //A space moves from the left child to the right child, which changes the last bit to '1'
+      } else if (c == ' ') {
+        code |= 1;
+
+      //A closing bracket moves back up to the parent
+      } else if (c == ')') {
+        code >>>= 1;
+        length--;
+
+      //Anything else is the byte value of a leaf at the current position
+      } else {
+        /** The index of the end of the byte value. */
+        int end = i + 1;
+        while (end < str.length() && str.charAt(end) != ' ' && str.charAt(end) != ')') {
+          end++;
+        }
+        /** The unsigned value of the byte stored in the leaf. */
+        int x = Integer.parseInt(str.substring(i, end)) & 0xFF;
+        codes[x] = code;
+        //A tree that is only a single leaf still uses one bit for every byte
+        lengths[x] = Math.max(length, 1);
+        i = end - 1;
+      }
+    }
+    return new CodeTable(codes, lengths);
+  }
+
+  /**
+   * This method creates a code table of canonical representations from the length of every byte's representation.
+   * Shorter representations come first, and representations of the same length are given out in order of the byte value,
+   * so the lengths are all that is needed to rebuild the table.
+   * @param lengths  the number of bits in every byte's representation, or 0 if the byte does not appear
+   * @return              the code table holding every byte's canonical representation
+   */
+
+  public static CodeTable fromLengths(int[] lengths) {
+    /** The number of representations of every length. */
+    int[] count = new int[MAX_CODE_LENGTH + 1];
+    for (int x = 0; x < lengths.length; x++) {
+      if (lengths[x] > 0) {
+        count[lengths[x]]++;
+      }
+    }
+
+    /** The next representation to give out for every length. */
+    long[] nextCode = new long[MAX_CODE_LENGTH + 1];
+    /** The first representation of the current length. */
+    long code = 0;
+    for (int length = 1; length <= MAX_CODE_LENGTH; length++) {
+      code = (code + count[length - 1]) << 1;
+      nextCode[length] = code;
+    }
+
+    /** The bits of every byte's canonical representation. */
+    long[] codes = new long[lengths.length];
+    for (int x = 0; x < lengths.length; x++) {
+      if (lengths[x] > 0) {
+        codes[x] = nextCode[lengths[x]]++;
+      }
+    }
+    return new CodeTable(codes, lengths.clone());
+  }
+
+  /**
+   * This method converts the lengths of the representations into a string of printable characters.
+   * Every length is written as the character that is that many places after '0',
+   * and every run of bytes that do not appear is written as '!' followed by the length of the run in the same way.
+   * @return the string form of the lengths
+   */
+
+  public String lengthsToString() {
+    /** The string being built. */
+    StringBuilder sb = new StringBuilder();
+    /** The current byte value. */
+    int x = 0;
+
+    while (x < lengths.length) {
+      if (lengths[x] > 0) {
+        sb.append((char)('0' + lengths[x]));
+        x++;
+      } else {
+        /** The number of bytes in a row that do not appear, limited so that it stays a single character. */
+        int run = 0;
+        while (x < lengths.length && lengths[x] == 0 && run < MAX_CODE_LENGTH) {
+          run++;
+          x++;
+        }
+        sb.append(ABSENT_RUN).append((char)('0' + run));
+      }
+    }
+    return sb.toString();
+  }
+
+  /**
+   * This method converts the string form of the lengths back into the length of every byte's representation
+   * @param str               the string form of the lengths
+   * @param alphabetSize  the number of different byte values
+   * @return                     the number of bits in every byte's representation
+   */
+
+  public static int[] lengthsFromString(String str, int alphabetSize) {
+    /** The number of bits in every byte's representation. */
+    int[] lengths = new int[alphabetSize];
+    /** The current byte value. */
+    int x = 0;
+
+    for (int i = 0; i < str.length(); i++) {
+      if (str.charAt(i) == ABSENT_RUN) {
+        //Skip over the bytes that do not appear, which already have a length of 0
+        i++;
+        x += str.charAt(i) - '0';
+      } else {
+        lengths[x++] = str.charAt(i) - '0';
+      }
+    }
+
+    //The string must describe exactly one length for every byte value
+    if (x != alphabetSize) {
+      throw new IllegalArgumentException("Expected " + alphabetSize + " lengths but found " + x);
+    }
+    return lengths;
+  }
+
+  /**
+   * This method returns the bits of every byte's representation
+   * @return the bits of every representation, right-aligned
+   */
+
+  public long[] getCodes() {
+    return this.codes;
+  }
+
+  /**
+   * This method returns the number of bits in every byte's representation
+   * @return the length of every representation
+   */
+
+  public int[] getLengths() {
+    return this.lengths;
+  }
+
+  /**
+   * This method calculates the number of bits that the encoded message will take up
+   * @param frequency  the frequency of every byte in the message
+   * @return                 the total number of bits in the encoded message
+   */
+
+  public long encodedBits(long[] frequency) {
+    /** The total number of bits counted so far. */
+    long numberOfBits = 0;
+    for (int x = 0; x < frequency.length; x++) {
+      numberOfBits += frequency[x] * lengths[x];
+    }
+    return numberOfBits;
+  }
+}
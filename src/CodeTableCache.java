@@ -0,0 +1,327 @@
+/* -------- IMPORTS ---------- */
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+/* -------------------------- */
+
+/**
+ * [CodeTableCache.java]
+ * The program holds the code table cache class that keeps the code tables built for recent files,
+ * so that a file whose bytes are spread out almost the same way as an earlier one reuses its table instead of building a new tree.
+ * Tables are found by a fingerprint of the frequencies, which puts the share of every byte into one of a few wide ranges,
+ * so that small differences between files do not change it, and counts a rare byte the same as one that never appears,
+ * since rare bytes come and go from file to file; a table without a representation for a byte that appears is never used.
+ * A share close to the edge of a range can still change the fingerprint, so when the fingerprint finds nothing good enough,
+ * the table used last is tried too, since similar files tend to come one after another, and it is cached under the new fingerprint if it is used.
+ * A table that is found is only used if the message it encodes, with the description of the table in the header,
+ * is no more than the tolerance longer than the bound that no table built for the message can beat,
+ * which is the entropy, or one bit for every byte if that is more, with the description that a built table would need.
+ * So a cached table never costs more than the tolerance over a built table, and that is checked without building one.
+ * A Huffman code is itself often a little over the bound, since every representation is a whole number of bits,
+ * so a larger tolerance lets tables be reused more often.
+ * The cache holds a fixed number of tables, and the one used longest ago is dropped to make room for a new one.
+ * The methods are synchronized, so the threads of a batch can share one cache.
+ * @author Braydon Wang
+ * @version 1.1, Oct 18, 2026
+ */
+
+class CodeTableCache {
+
+  /** The number of tables kept when no other number is given. */
+  static final int DEFAULT_CAPACITY = 64;
+  /** The fraction that a cached table may be longer than a built table when no other tolerance is given. */
+  static final double DEFAULT_TOLERANCE = 0.01;
+  /** The number of powers of two of the share that every bucket of the fingerprint covers. */
+  private static final int BUCKET_WIDTH = 4;
+  /** The number of buckets for bytes that are not rare, so a byte whose share is below 1 / 2^(BUCKETS * BUCKET_WIDTH) counts as rare. */
+  private static final int BUCKETS = 2;
+
+  /** The cached tables, ordered from the one used longest ago to the one used last. */
+  private LinkedHashMap<Fingerprint,Entry> entries;
+  /** The entry used or cached last, or null if the cache is empty. */
+  private Entry last;
+  /** The fraction that a cached table may be longer than a built table. */
+  private double tolerance;
+  /** The number of files that reused a cached table. */
+  private long hits;
+  /** The number of files that had no cached table to try. */
+  private long misses;
+  /** The number of files whose cached tables were tried but cost too much. */
+  private long rejections;
+
+  /**
+   * Creates an object from the code table cache class.
+   * @param capacity    the most tables that are kept at once
+   * @param tolerance  the fraction that a cached table may be longer than a built table, such as 0.01 for 1%
+   */
+
+  CodeTableCache(final int capacity, double tolerance) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("The cache must hold at least one table");
+    }
+    if (tolerance < 0) {
+      throw new IllegalArgumentException("The tolerance cannot be negative");
+    }
+    this.tolerance = tolerance;
+    this.entries = new LinkedHashMap<Fingerprint,Entry>(16, 0.75f, true) {
+      protected boolean removeEldestEntry(Map.Entry<Fingerprint,CodeTableCache.Entry> eldest) {
+        return size() > capacity;
+      }
+    };
+  }
+
+  /**
+   * This method finds the fingerprint of a message's frequencies
+   * @param frequency  the frequency of every byte in the message
+   * @return                 the fingerprint, which is the same for messages whose bytes have about the same shares
+   */
+
+  public static Fingerprint fingerprint(long[] frequency) {
+    /** The number of bytes in the message. */
+    long total = 0;
+    for (int x = 0; x < frequency.length; x++) {
+      total += frequency[x];
+    }
+
+    /** The bucket of every byte, packed four bits at a time. */
+    long[] buckets = new long[(frequency.length * 4 + 63) / 64];
+    for (int x = 0; x < frequency.length; x++) {
+      //A rare byte is left in the bucket of zero with the bytes that never appear
+      if (frequency[x] > 0) {
+        /** The bucket of the byte, which is the whole part of -log2 of its share divided by the width of a bucket, counting from one. */
+        long bucket = 1 + (63 - Long.numberOfLeadingZeros(total / frequency[x])) / BUCKET_WIDTH;
+        if (bucket <= BUCKETS) {
+          buckets[x / 16] |= bucket << (x % 16 * 4);
+        }
+      }
+    }
+    return new Fingerprint(buckets);
+  }
+
+  /**
+   * This method finds a cached table that is good enough for a message, trying the table cached under its fingerprint and then the table used last
+   * @param key                       the fingerprint of the message's frequencies
+   * @param frequency              the frequency of every byte in the message
+   * @param descriptionLength  the number of characters that would describe a table built for the message in the header
+   * @return                             the cached table, or null if there is none or they would all cost more than the tolerance allows
+   */
+
+  public Entry get(Fingerprint key, long[] frequency, int descriptionLength) {
+    //The bound is found before taking the lock, so that other threads are not kept waiting for the logarithms
+    return find(key, frequency, bound(frequency, descriptionLength));
+  }
+
+  /**
+   * This method tries the table cached under a fingerprint and then the table used last
+   * @param key           the fingerprint of the message's frequencies
+   * @param frequency  the frequency of every byte in the message
+   * @param bound       the fewest bits that a built table could take with its description
+   * @return                 the cached table, or null if there is none or they would all cost more than the tolerance allows
+   */
+
+  private synchronized Entry find(Fingerprint key, long[] frequency, double bound) {
+    /** The table cached under the fingerprint. */
+    Entry entry = entries.get(key);
+    if (entry != null && cost(entry, frequency) <= limit(bound)) {
+      hits++;
+      last = entry;
+      return entry;
+    }
+
+    //The table used last is cached under the new fingerprint too, so the next file like this one finds it straight away
+    if (last != null && last != entry && cost(last, frequency) <= limit(bound)) {
+      hits++;
+      entries.put(key, last);
+      return last;
+    }
+    if (entry == null && last == null) {
+      misses++;
+    } else {
+      rejections++;
+    }
+    return null;
+  }
+
+  /**
+   * This method caches a table that was just built and makes it the one used last, dropping the table used longest ago if the cache is full
+   * @param key              the fingerprint of the frequencies that the table was built from
+   * @param table           the code table
+   * @param description  the string that describes the representations in the header
+   * @return                    the entry that was cached
+   */
+
+  public synchronized Entry put(Fingerprint key, CodeTable table, String description) {
+    /** The entry being cached. */
+    Entry entry = new Entry(table, description);
+    entries.put(key, entry);
+    last = entry;
+    return entry;
+  }
+
+  /**
+   * This method finds the fewest bits that any table could take for a message with its description,
+   * which is the entropy, or one bit for every byte if that is more, since every byte takes at least one bit
+   * @param frequency              the frequency of every byte in the message
+   * @param descriptionLength  the number of characters that describe the table in the header
+   * @return                             the number of bits
+   */
+
+  private static double bound(long[] frequency, int descriptionLength) {
+    /** The number of bytes in the message. */
+    long total = 0;
+    for (int x = 0; x < frequency.length; x++) {
+      total += frequency[x];
+    }
+    return Math.max(FrequencyCounter.entropyBits(frequency), total) + 8.0 * descriptionLength;
+  }
+
+  /**
+   * This method finds the most bits that a cached table may take for a message, which is the tolerance over the bound of the message,
+   * and so never more than the tolerance over what a built table takes, whatever table is cached
+   * @param bound  the fewest bits that a built table could take for the message with its description
+   * @return           the most bits that the cached table may take with its description
+   */
+
+  private double limit(double bound) {
+    return bound * (1 + tolerance);
+  }
+
+  /**
+   * This method finds how many bits a message takes with a cached table, counting the description of the table in the header
+   * @param entry         the cached table
+   * @param frequency  the frequency of every byte in the message
+   * @return                 the number of bits, or the largest value if the table cannot encode the message
+   */
+
+  private static double cost(Entry entry, long[] frequency) {
+    /** The length of every representation in the table. */
+    int[] lengths = entry.getTable().getLengths();
+    for (int x = 0; x < frequency.length; x++) {
+      //A rare byte may have had no representation in the file the table was built for, and could not be encoded at all
+      if (frequency[x] > 0 && lengths[x] == 0) {
+        return Double.MAX_VALUE;
+      }
+    }
+    return entry.getTable().encodedBits(frequency) + 8.0 * entry.getDescription().length();
+  }
+
+  /**
+   * This method returns the number of files that reused a cached table
+   * @return the number of hits
+   */
+
+  public synchronized long getHits() {
+    return hits;
+  }
+
+  /**
+   * This method returns the number of files that had no cached table to try, which only happens before the first table is cached
+   * @return the number of misses
+   */
+
+  public synchronized long getMisses() {
+    return misses;
+  }
+
+  /**
+   * This method returns the number of files whose cached tables were tried but cost more than the tolerance allows
+   * @return the number of rejections
+   */
+
+  public synchronized long getRejections() {
+    return rejections;
+  }
+
+  /**
+   * This method returns the number of tables in the cache
+   * @return the number of tables
+   */
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  /**
+   * [Fingerprint]
+   * The class is the key that tables are cached under, holding the bucket of every byte.
+   */
+
+  static class Fingerprint {
+
+    /** The bucket of every byte, packed four bits at a time. */
+    private long[] buckets;
+    /** The hash code, which is found once since the buckets never change. */
+    private int hash;
+
+    /**
+     * Creates an object from the fingerprint class.
+     * @param buckets  the bucket of every byte, packed four bits at a time
+     */
+
+    Fingerprint(long[] buckets) {
+      this.buckets = buckets;
+      this.hash = Arrays.hashCode(buckets);
+    }
+
+    /**
+     * This method returns the hash code of the fingerprint
+     * @return the hash code
+     */
+
+    public int hashCode() {
+      return hash;
+    }
+
+    /**
+     * This method checks whether another object is the same fingerprint
+     * @param other  the other object
+     * @return           whether every bucket is the same
+     */
+
+    public boolean equals(Object other) {
+      return other instanceof Fingerprint && Arrays.equals(buckets, ((Fingerprint)other).buckets);
+    }
+  }
+
+  /**
+   * [Entry]
+   * The class holds a cached code table together with the string that describes it in the header.
+   */
+
+  static class Entry {
+
+    /** The code table holding every byte's representation. */
+    private CodeTable table;
+    /** The string that describes the representations in the header. */
+    private String description;
+
+    /**
+     * Creates an object from the entry class.
+     * @param table           the code table
+     * @param description  the string that describes the representations in the header
+     */
+
+    Entry(CodeTable table, String description) {
+      this.table = table;
+      this.description = description;
+    }
+
+    /**
+     * This method returns the cached code table
+     * @return the code table
+     */
+
+    public CodeTable getTable() {
+      return table;
+    }
+
+    /**
+     * This method returns the string that describes the representations in the header
+     * @return the description
+     */
+
+    public String getDescription() {
+      return description;
+    }
+  }
+}
@@ -0,0 +1,146 @@
+/* -------- IMPORTS ---------- */
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.HashMap;
+/* -------------------------- */
+
+/**
+ * [CodeTableStore.java]
+ * The program holds the code table store class that keeps trained code tables in a directory, one file per table.
+ * A table is trained once from the frequencies of a sample of similar files, and every byte is counted at least once
+ * so that the table can encode any file, even one with bytes that never appeared in the sample.
+ * A .MZIP file encoded with a stored table only names the table in its header, so the file is read once instead of twice
+ * and no tree or lengths are written. The table file holds the lengths of the canonical representations,
+ * written the same way as the second line of a .MZIP header.
+ * @author Braydon Wang
+ * @version 1.1, Oct 18, 2026
+ */
+
+class CodeTableStore {
+
+  /** The extension of every table file. */
+  static final String EXTENSION = ".table";
+  /** The directory used when no other directory is given. */
+  static final String DEFAULT_DIRECTORY = "tables";
+
+  /** The directory that the table files are kept in. */
+  private File directory;
+  /** The tables that have already been loaded, by their name. */
+  private HashMap<String,CodeTable> tables;
+
+  /**
+   * Creates an object from the code table store class.
+   * @param directory  the directory that the table files are kept in
+   */
+
+  CodeTableStore(String directory) {
+    this.directory = new File(directory);
+    this.tables = new HashMap<String,CodeTable>();
+  }
+
+  /**
+   * This method trains a code table from a sample of files
+   * @param names      the names of the files in the sample
+   * @param maxBits    the longest representation allowed, or 0 if the length is not limited
+   * @return               the trained code table, which has a representation for every byte
+   * @throws IOException if a file cannot be read
+   */
+
+  public static CodeTable train(String[] names, int maxBits) throws IOException {
+    /** The frequency of every byte over the whole sample. */
+    long[] frequency = new long[256];
+
+    //Every byte starts with a count of one so that it is given a representation
+    for (int x = 0; x < frequency.length; x++) {
+      frequency[x] = 1;
+    }
+    for (String name: names) {
+      /** The frequency of every byte in the current file. */
+      long[] fileFrequency = FrequencyCounter.countFrequencies(name);
+      for (int x = 0; x < frequency.length; x++) {
+        frequency[x] += fileFrequency[x];
+      }
+    }
+    return HuffmanEncoder.buildTable(frequency, maxBits);
+  }
+
+  /**
+   * This method saves a code table under a name
+   * @param id      the name of the table
+   * @param table  the code table, which must hold canonical representations
+   * @throws IOException if the table file cannot be written
+   */
+
+  public void save(String id, CodeTable table) throws IOException {
+    checkId(id);
+    directory.mkdirs();
+
+    /** The writer used to write the table file. */
+    Writer out = new OutputStreamWriter(new FileOutputStream(new File(directory, id + EXTENSION)), "ISO-8859-1");
+    try {
+      out.write(table.lengthsToString());
+      out.write('\n');
+    } finally {
+      out.close();
+    }
+    tables.put(id, table);
+  }
+
+  /**
+   * This method loads the code table saved under a name, keeping it for the next time it is needed
+   * @param id  the name of the table
+   * @return      the code table
+   * @throws IOException if the table file cannot be read or is not valid
+   */
+
+  public CodeTable load(String id) throws IOException {
+    /** The table, if it has already been loaded. */
+    CodeTable table = tables.get(id);
+    if (table != null) {
+      return table;
+    }
+    checkId(id);
+
+    /** The reader used to read the table file. */
+    BufferedReader in = new BufferedReader(new InputStreamReader(new FileInputStream(new File(directory, id + EXTENSION)), "ISO-8859-1"));
+    try {
+      /** The line holding the lengths of the representations. */
+      String line = in.readLine();
+      if (line == null) {
+        throw new IOException("The code table " + id + " is empty");
+      }
+      table = CodeTable.fromLengths(CodeTable.lengthsFromString(line, 256));
+    } catch (IllegalArgumentException e) {
+      throw new IOException("The code table " + id + " is not valid", e);
+    } finally {
+      in.close();
+    }
+    tables.put(id, table);
+    return table;
+  }
+
+  /**
+   * This method checks that a table name only uses letters, digits, '-' and '_',
+   * so that it is safe to use as a file name and in a header line
+   * @param id  the name of the table
+   */
+
+  static void checkId(String id) {
+    if (id.length() == 0) {
+      throw new IllegalArgumentException("The name of a code table cannot be empty");
+    }
+    for (int i = 0; i < id.length(); i++) {
+      /** The current character of the name. */
+      char c = id.charAt(i);
+      if (!Character.isLetterOrDigit(c) && c != '-' && c != '_') {
+        throw new IllegalArgumentException("The name of a code table cannot contain '" + c + "'");
+      }
+    }
+  }
+}
@@ -0,0 +1,71 @@
+/* -------- IMPORTS ---------- */
+import java.io.IOException;
+import java.io.OutputStream;
+/* -------------------------- */
+
+/**
+ * [ContextDecoder.java]
+ * The program holds the context decoder class that decodes a message written by the ContextEncoder class.
+ * Every context has its own HuffmanDecoder with its own lookup table, and the byte that was just decoded picks the decoder of the next one.
+ * @author Braydon Wang
+ * @version 1.1, Oct 18, 2026
+ */
+
+class ContextDecoder {
+
+  /** The number of bytes decoded before they are written to the output stream. */
+  static final int BUFFER_SIZE = 1 << 16;
+
+  /** The decoder of every context, or null for a context that is never used. */
+  private HuffmanDecoder[] decoders;
+
+  /**
+   * Creates an object from the context decoder class.
+   * @param table  the context table holding every context's representations
+   */
+
+  ContextDecoder(ContextTable table) {
+    this.decoders = new HuffmanDecoder[ContextTable.CONTEXTS];
+    for (int context = 0; context < decoders.length; context++) {
+      if (table.getTable(context) != null) {
+        decoders[context] = new HuffmanDecoder(table.getTable(context));
+      }
+    }
+  }
+
+  /**
+   * This method decodes an encoded message and writes the original bytes
+   * @param in                  the bit reader that the encoded message is read from
+   * @param numberOfBits  the number of bits in the encoded message, not counting the extra bits
+   * @param out               the stream that the original bytes are written to
+   * @throws IOException if the message cannot be read, does not match the representations, or cannot be written
+   */
+
+  public void decode(BitReader in, long numberOfBits, OutputStream out) throws IOException {
+    /** The buffer that decoded bytes are collected in before they are written. */
+    byte[] buffer = new byte[BUFFER_SIZE];
+    /** The number of decoded bytes waiting in the buffer. */
+    int count = 0;
+    /** The number of bits left to decode. */
+    long bitsLeft = numberOfBits;
+    /** The byte before the current one, starting with byte 0. */
+    int context = 0;
+
+    while (bitsLeft > 0) {
+      if (decoders[context] == null) {
+        throw new IOException("The encoded message does not match the representations");
+      }
+      /** The byte that was decoded and the length of its representation. */
+      int symbol = decoders[context].decodeSymbol(in, bitsLeft);
+      bitsLeft -= symbol & 0xFF;
+      context = symbol >>> 8;
+
+      buffer[count++] = (byte)context;
+      if (count == buffer.length) {
+        out.write(buffer, 0, count);
+        count = 0;
+      }
+    }
+    out.write(buffer, 0, count);
+  }
+}
@@ -0,0 +1,71 @@
+/* -------- IMPORTS ---------- */
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+/* -------------------------- */
+
+/**
+ * [ContextEncoder.java]
+ * The program holds the context encoder class that encodes every byte with the code table of the byte before it.
+ * The representations are read from the flat arrays of a ContextTable, so switching to the next context is only a shift,
+ * and nothing is allocated while a message is encoded.
+ * @author Braydon Wang
+ * @version 1.1, Oct 18, 2026
+ */
+
+class ContextEncoder {
+
+  /** The context table holding every context's representations. */
+  private ContextTable table;
+  /** The bit packer that is reused for every message. */
+  private BitPacker packer;
+  /** The buffer that is reused to hold chunks of a stream being encoded. */
+  private byte[] buffer;
+
+  /**
+   * Creates an object from the context encoder class.
+   * @param table  the context table holding every context's representations
+   */
+
+  ContextEncoder(ContextTable table) {
+    this.table = table;
+    this.packer = new BitPacker((OutputStream)null, FrequencyCounter.BUFFER_SIZE);
+    this.buffer = new byte[FrequencyCounter.BUFFER_SIZE];
+  }
+
+  /**
+   * This method encodes every byte of a stream into another stream
+   * @param in   the stream that the original bytes are read from
+   * @param out  the stream that the encoded message is written to
+   * @return        the number of bits in the encoded message, not counting the zeros that fill the last byte
+   * @throws IOException if the bytes cannot be read or the encoded message cannot be written
+   */
+
+  public long encode(InputStream in, OutputStream out) throws IOException {
+    /** The bits of every representation, indexed by the context and the byte. */
+    long[] codes = table.getCodes();
+    /** The number of bits of every representation, indexed by the context and the byte. */
+    int[] lengths = table.getLengths();
+    /** The context shifted left by 8 bits, starting with the context of byte 0. */
+    int context = 0;
+    /** The number of bytes read into the buffer. */
+    int count;
+
+    packer.reset(out);
+    while ((count = in.read(buffer)) != -1) {
+      for (int i = 0; i < count; i++) {
+        /** The index of the current byte's representation. */
+        int index = context | (buffer[i] & 0xFF);
+        if (lengths[index] == 0) {
+          throw new IOException("The byte " + (buffer[i] & 0xFF) + " has no representation after the byte " + (context >>> 8));
+        }
+        packer.write(codes[index], lengths[index]);
+        context = (buffer[i] & 0xFF) << 8;
+      }
+    }
+
+    /** The number of zeros that fill the last byte. */
+    int extraBits = packer.finish();
+    return packer.getNumberOfBytes() * 8 - extraBits;
+  }
+}
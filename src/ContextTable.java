@@ -0,0 +1,165 @@
+/* -------- IMPORTS ---------- */
+import java.util.Arrays;
+/* -------------------------- */
+
+/**
+ * [ContextTable.java]
+ * The program holds the context table class that keeps a separate code table for every possible byte before the current one.
+ * In text, the byte that comes next depends a lot on the byte before it, so giving every previous byte (its context)
+ * its own representations makes the encoded message much shorter than a single table for the whole file.
+ * Every context's representations are canonical and limited in length, so that they can be written as lengths only.
+ * All the representations are also kept in two flat arrays indexed by the context and the byte together,
+ * so that the encoder can switch between contexts without looking anything up.
+ * The first byte of a message uses the context of byte 0.
+ * @author Braydon Wang
+ * @version 1.1, Oct 18, 2026
+ */
+
+class ContextTable {
+
+  /** The number of contexts, one for every byte value. */
+  static final int CONTEXTS = 256;
+  /** The longest representation allowed when no other limit is given. */
+  static final int DEFAULT_MAX_BITS = 15;
+  /** The character written between the lengths of two contexts. */
+  static final char SEPARATOR = ',';
+
+  /** The code table of every context, or null for a context that is never used. */
+  private CodeTable[] tables;
+  /** The bits of every representation, at the index of the context shifted left by 8 bits plus the byte. */
+  private long[] codes;
+  /** The number of bits of every representation, at the index of the context shifted left by 8 bits plus the byte. */
+  private int[] lengths;
+
+  /**
+   * Creates an object from the context table class.
+   * @param tables  the code table of every context, or null for a context that is never used
+   */
+
+  ContextTable(CodeTable[] tables) {
+    this.tables = tables;
+    this.codes = new long[CONTEXTS * 256];
+    this.lengths = new int[CONTEXTS * 256];
+
+    //Copy every context's representations into its part of the flat arrays
+    for (int context = 0; context < CONTEXTS; context++) {
+      if (tables[context] != null) {
+        System.arraycopy(tables[context].getCodes(), 0, codes, context << 8, 256);
+        System.arraycopy(tables[context].getLengths(), 0, lengths, context << 8, 256);
+      }
+    }
+  }
+
+  /**
+   * This method creates the code table of every context from the frequencies of every pair of bytes
+   * @param frequency  the frequency of every byte after every context, at the index of the context shifted left by 8 bits plus the byte
+   * @param maxBits     the longest representation allowed
+   * @return                 the context table
+   */
+
+  public static ContextTable fromFrequencies(long[] frequency, int maxBits) {
+    /** The code table of every context. */
+    CodeTable[] tables = new CodeTable[CONTEXTS];
+
+    for (int context = 0; context < CONTEXTS; context++) {
+      /** The frequency of every byte after the current context. */
+      long[] contextFrequency = Arrays.copyOfRange(frequency, context << 8, (context + 1) << 8);
+      /** The number of bytes after the current context. */
+      long total = 0;
+      for (int x = 0; x < contextFrequency.length; x++) {
+        total += contextFrequency[x];
+      }
+      if (total > 0) {
+        tables[context] = HuffmanEncoder.buildTable(contextFrequency, maxBits);
+      }
+    }
+    return new ContextTable(tables);
+  }
+
+  /**
+   * This method converts the string form of every context's lengths back into a context table
+   * @param str  the string form, as made by the lengthsToString method
+   * @return      the context table
+   */
+
+  public static ContextTable fromString(String str) {
+    /** The string form of every context's lengths. */
+    String[] parts = str.split("" + SEPARATOR, -1);
+    if (parts.length != CONTEXTS) {
+      throw new IllegalArgumentException("Expected " + CONTEXTS + " contexts but found " + parts.length);
+    }
+
+    /** The code table of every context. */
+    CodeTable[] tables = new CodeTable[CONTEXTS];
+    for (int context = 0; context < CONTEXTS; context++) {
+      if (parts[context].length() > 0) {
+        tables[context] = CodeTable.fromLengths(CodeTable.lengthsFromString(parts[context], 256));
+      }
+    }
+    return new ContextTable(tables);
+  }
+
+  /**
+   * This method converts every context's lengths into a string of printable characters.
+   * Every context is written the same way as the lengths of a single code table, with a ',' between contexts,
+   * and a context that is never used is left empty.
+   * @return the string form of the lengths
+   */
+
+  public String lengthsToString() {
+    /** The string being built. */
+    StringBuilder sb = new StringBuilder();
+    for (int context = 0; context < CONTEXTS; context++) {
+      if (context > 0) {
+        sb.append(SEPARATOR);
+      }
+      if (tables[context] != null) {
+        sb.append(tables[context].lengthsToString());
+      }
+    }
+    return sb.toString();
+  }
+
+  /**
+   * This method returns the code table of a context
+   * @param context  the byte before the current one
+   * @return              the code table, or null if the context is never used
+   */
+
+  public CodeTable getTable(int context) {
+    return tables[context];
+  }
+
+  /**
+   * This method returns the bits of every representation
+   * @return the bits, at the index of the context shifted left by 8 bits plus the byte
+   */
+
+  public long[] getCodes() {
+    return this.codes;
+  }
+
+  /**
+   * This method returns the number of bits of every representation
+   * @return the lengths, at the index of the context shifted left by 8 bits plus the byte
+   */
+
+  public int[] getLengths() {
+    return this.lengths;
+  }
+
+  /**
+   * This method calculates the number of bits that the encoded message will take up
+   * @param frequency  the frequency of every byte after every context
+   * @return                 the total number of bits in the encoded message
+   */
+
+  public long encodedBits(long[] frequency) {
+    /** The total number of bits counted so far. */
+    long numberOfBits = 0;
+    for (int i = 0; i < frequency.length; i++) {
+      numberOfBits += frequency[i] * lengths[i];
+    }
+    return numberOfBits;
+  }
+}
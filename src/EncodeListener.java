@@ -0,0 +1,18 @@
+/**
+ * [EncodeListener.java]
+ * The program holds the encode listener interface, which is told about every file once it has been encoded.
+ * A batch calls it from several threads at once, so an object that keeps the metrics must be thread safe.
+ * @author Braydon Wang
+ * @version 1.1, Oct 18, 2026
+ */
+
+interface EncodeListener {
+
+  /**
+   * This method is called after a file has been encoded
+   * @param name      the name of the original file
+   * @param metrics  the metrics recorded while the file was encoded
+   */
+
+  void encodeFinished(String name, EncodeMetrics metrics);
+}
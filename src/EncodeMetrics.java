@@ -0,0 +1,236 @@
+/* -------- IMPORTS ---------- */
+import java.lang.management.ManagementFactory;
+/* -------------------------- */
+
+/**
+ * [EncodeMetrics.java]
+ * The program holds the encode metrics class that records where the time goes while a single file is encoded.
+ * The time and the bytes allocated by the encoding thread are added to a phase every time the phase ends,
+ * along with the number of bytes in and out, the entropy of the frequencies, and the number of bits that were packed.
+ * The pack phase writes to a buffered stream as it packs, so the write phase only holds the header and the final flush.
+ * An object is only used by the thread that encodes the file, so nothing in it is synchronized.
+ * @author Braydon Wang
+ * @version 1.1, Oct 18, 2026
+ */
+
+class EncodeMetrics {
+
+  /** The phase that reads the file and counts the frequency of every byte. */
+  static final int READ = 0;
+  /** The phase that builds the binary tree or finds the lengths of the representations. */
+  static final int BUILD = 1;
+  /** The phase that gives every byte its representation and describes them for the header. */
+  static final int ASSIGN = 2;
+  /** The phase that packs the representations of every byte. */
+  static final int PACK = 3;
+  /** The phase that writes the header and finishes the file. */
+  static final int WRITE = 4;
+  /** The name of every phase, indexed by the phase. */
+  static final String[] PHASES = {"read", "build", "assign", "pack", "write"};
+
+  /** The time spent in every phase, in nanoseconds. */
+  private long[] nanos;
+  /** The bytes allocated in every phase, or -1 if the JVM does not count them. */
+  private long[] allocated;
+  /** The time when the current phase started, in nanoseconds. */
+  private long mark;
+  /** The bytes allocated by the thread when the current phase started. */
+  private long allocatedMark;
+  /** The number of original bytes. */
+  private long bytesIn;
+  /** The number of bytes in the .MZIP file. */
+  private long bytesOut;
+  /** The number of bits in the encoded message, not counting the header. */
+  private long encodedBits;
+  /** The smallest number of bits any code could use for the message, or -1 if the frequencies were not counted. */
+  private double entropyBits;
+
+  /**
+   * Creates an object from the encode metrics class, with the first phase starting now.
+   */
+
+  EncodeMetrics() {
+    this.nanos = new long[PHASES.length];
+    this.allocated = new long[PHASES.length];
+    this.entropyBits = -1;
+    this.mark = System.nanoTime();
+    this.allocatedMark = allocatedBytes();
+  }
+
+  /**
+   * This method ends a phase, adding the time and bytes allocated since the last phase ended, and starts the next one
+   * @param phase  the phase that ended
+   */
+
+  public void endPhase(int phase) {
+    /** The time now, in nanoseconds. */
+    long now = System.nanoTime();
+    /** The bytes allocated by the thread so far. */
+    long allocatedNow = allocatedBytes();
+
+    nanos[phase] += now - mark;
+    allocated[phase] = allocatedMark < 0 ? -1 : allocated[phase] + allocatedNow - allocatedMark;
+    mark = now;
+    allocatedMark = allocatedNow;
+  }
+
+  /**
+   * This method records the sizes of a finished file
+   * @param bytesIn       the number of original bytes
+   * @param bytesOut     the number of bytes in the .MZIP file
+   * @param encodedBits  the number of bits in the encoded message, not counting the header
+   */
+
+  public void setSizes(long bytesIn, long bytesOut, long encodedBits) {
+    this.bytesIn = bytesIn;
+    this.bytesOut = bytesOut;
+    this.encodedBits = encodedBits;
+  }
+
+  /**
+   * This method records the entropy of the frequencies that the representations were built from
+   * @param frequency  the frequency of every symbol
+   */
+
+  public void setEntropy(long[] frequency) {
+    this.entropyBits = FrequencyCounter.entropyBits(frequency);
+  }
+
+  /**
+   * This method returns the time spent in a phase
+   * @param phase  the phase
+   * @return          the time, in nanoseconds
+   */
+
+  public long getNanos(int phase) {
+    return nanos[phase];
+  }
+
+  /**
+   * This method returns the time spent in every phase together
+   * @return the time, in nanoseconds
+   */
+
+  public long getTotalNanos() {
+    /** The time added up so far. */
+    long total = 0;
+    for (int phase = 0; phase < nanos.length; phase++) {
+      total += nanos[phase];
+    }
+    return total;
+  }
+
+  /**
+   * This method returns the bytes allocated in a phase
+   * @param phase  the phase
+   * @return          the number of bytes, or -1 if the JVM does not count them
+   */
+
+  public long getAllocated(int phase) {
+    return allocated[phase];
+  }
+
+  /**
+   * This method returns the number of original bytes
+   * @return the number of bytes
+   */
+
+  public long getBytesIn() {
+    return bytesIn;
+  }
+
+  /**
+   * This method returns the number of bytes in the .MZIP file
+   * @return the number of bytes
+   */
+
+  public long getBytesOut() {
+    return bytesOut;
+  }
+
+  /**
+   * This method returns the number of bits in the encoded message
+   * @return the number of bits, not counting the header
+   */
+
+  public long getEncodedBits() {
+    return encodedBits;
+  }
+
+  /**
+   * This method returns the size of the .MZIP file compared to the original file
+   * @return the ratio, or 0 for an empty file
+   */
+
+  public double getRatio() {
+    return bytesIn == 0 ? 0 : (double)bytesOut / bytesIn;
+  }
+
+  /**
+   * This method returns the average number of bits used for every original byte
+   * @return the number of bits, or 0 for an empty file
+   */
+
+  public double getAverageCodeLength() {
+    return bytesIn == 0 ? 0 : (double)encodedBits / bytesIn;
+  }
+
+  /**
+   * This method returns the entropy of every original byte, which no code can beat
+   * @return the number of bits, or -1 if the frequencies were not counted
+   */
+
+  public double getEntropy() {
+    if (entropyBits < 0) {
+      return -1;
+    }
+    return bytesIn == 0 ? 0 : entropyBits / bytesIn;
+  }
+
+  /**
+   * This method returns the number of original megabytes encoded every second
+   * @return the throughput
+   */
+
+  public double getThroughput() {
+    return getTotalNanos() == 0 ? 0 : bytesIn / (getTotalNanos() / 1e9) / (1 << 20);
+  }
+
+  /**
+   * This method describes the metrics in a few lines
+   * @return the description
+   */
+
+  public String toString() {
+    /** The description put together so far. */
+    StringBuilder text = new StringBuilder();
+
+    text.append(String.format("%d bytes -> %d bytes (ratio %.3f), %.3f bits/byte", bytesIn, bytesOut, getRatio(), getAverageCodeLength()));
+    if (entropyBits >= 0) {
+      text.append(String.format(" (entropy %.3f)", getEntropy()));
+    }
+    text.append(String.format(", %.1f MB/s%n", getThroughput()));
+    for (int phase = 0; phase < PHASES.length; phase++) {
+      text.append(String.format("  %-7s %10.3f ms", PHASES[phase], nanos[phase] / 1e6));
+      if (allocated[phase] >= 0) {
+        text.append(String.format(" %12d bytes allocated", allocated[phase]));
+      }
+      text.append(String.format("%n"));
+    }
+    return text.toString();
+  }
+
+  /**
+   * This method finds how many bytes the current thread has allocated
+   * @return the number of bytes, or -1 if the JVM does not count them
+   */
+
+  static long allocatedBytes() {
+    /** The thread bean of the JVM. */
+    java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    if (bean instanceof com.sun.management.ThreadMXBean) {
+      return ((com.sun.management.ThreadMXBean)bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+    return -1;
+  }
+}
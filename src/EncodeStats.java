@@ -0,0 +1,183 @@
+/* -------- IMPORTS ---------- */
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.ObjectName;
+/* -------------------------- */
+
+/**
+ * [EncodeStats.java]
+ * The program holds the encode stats class that adds up the metrics of every file encoded in a run.
+ * It is an encode listener, so a batch can report to it from every thread, and it can be registered with JMX,
+ * so that the totals of a long run can be watched, or alerted on, while it is running.
+ * @author Braydon Wang
+ * @version 1.1, Oct 18, 2026
+ */
+
+class EncodeStats implements EncodeStatsMBean, EncodeListener {
+
+  /** The name that the stats are registered under with JMX. */
+  static final String OBJECT_NAME = "mzip:type=EncodeStats";
+
+  /** The number of files encoded so far. */
+  private long fileCount;
+  /** The number of original bytes encoded so far. */
+  private long bytesIn;
+  /** The number of bytes written to .MZIP files so far. */
+  private long bytesOut;
+  /** The number of bits in every encoded message so far. */
+  private long encodedBits;
+  /** The time spent in every phase so far, in nanoseconds. */
+  private long[] nanos = new long[EncodeMetrics.PHASES.length];
+  /** The bytes allocated in every phase so far, or -1 if the JVM does not count them. */
+  private long[] allocated = new long[EncodeMetrics.PHASES.length];
+  /** The throughput of the last file encoded. */
+  private double lastThroughput;
+
+  /**
+   * This method adds the metrics of a file that was just encoded
+   * @param name      the name of the original file
+   * @param metrics  the metrics recorded while the file was encoded
+   */
+
+  public synchronized void encodeFinished(String name, EncodeMetrics metrics) {
+    fileCount++;
+    bytesIn += metrics.getBytesIn();
+    bytesOut += metrics.getBytesOut();
+    encodedBits += metrics.getEncodedBits();
+    for (int phase = 0; phase < nanos.length; phase++) {
+      nanos[phase] += metrics.getNanos(phase);
+      allocated[phase] = allocated[phase] < 0 || metrics.getAllocated(phase) < 0 ? -1 : allocated[phase] + metrics.getAllocated(phase);
+    }
+    lastThroughput = metrics.getThroughput();
+  }
+
+  /**
+   * This method registers the stats with the JVM's JMX server
+   * @throws JMException if the stats cannot be registered, such as when another object has the same name
+   */
+
+  public void register() throws JMException {
+    ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+  }
+
+  /**
+   * This method returns the number of files encoded so far
+   * @return the number of files
+   */
+
+  public synchronized long getFileCount() {
+    return fileCount;
+  }
+
+  /**
+   * This method returns the number of original bytes encoded so far
+   * @return the number of bytes
+   */
+
+  public synchronized long getBytesIn() {
+    return bytesIn;
+  }
+
+  /**
+   * This method returns the number of bytes written to .MZIP files so far
+   * @return the number of bytes
+   */
+
+  public synchronized long getBytesOut() {
+    return bytesOut;
+  }
+
+  /**
+   * This method returns the size of every .MZIP file compared to every original file
+   * @return the ratio, or 0 if nothing was encoded
+   */
+
+  public synchronized double getRatio() {
+    return bytesIn == 0 ? 0 : (double)bytesOut / bytesIn;
+  }
+
+  /**
+   * This method returns the number of original megabytes encoded every second of encoding time, added up over every thread
+   * @return the throughput
+   */
+
+  public synchronized double getThroughput() {
+    /** The time spent encoding, in nanoseconds. */
+    long total = 0;
+    for (int phase = 0; phase < nanos.length; phase++) {
+      total += nanos[phase];
+    }
+    return total == 0 ? 0 : bytesIn / (total / 1e9) / (1 << 20);
+  }
+
+  /**
+   * This method returns the throughput of the last file encoded
+   * @return the throughput
+   */
+
+  public synchronized double getLastThroughput() {
+    return lastThroughput;
+  }
+
+  /**
+   * This method returns the average number of bits used for every original byte
+   * @return the number of bits, or 0 if nothing was encoded
+   */
+
+  public synchronized double getAverageCodeLength() {
+    return bytesIn == 0 ? 0 : (double)encodedBits / bytesIn;
+  }
+
+  /**
+   * This method returns the time spent in every phase so far
+   * @return the time in milliseconds, indexed by the phase
+   */
+
+  public synchronized double[] getPhaseMillis() {
+    /** The time of every phase in milliseconds. */
+    double[] millis = new double[nanos.length];
+    for (int phase = 0; phase < nanos.length; phase++) {
+      millis[phase] = nanos[phase] / 1e6;
+    }
+    return millis;
+  }
+
+  /**
+   * This method returns the name of every phase
+   * @return the names, in the same order as the times
+   */
+
+  public String[] getPhaseNames() {
+    return EncodeMetrics.PHASES.clone();
+  }
+
+  /**
+   * This method returns the bytes allocated in every phase so far
+   * @return the number of bytes, indexed by the phase
+   */
+
+  public synchronized long[] getPhaseAllocated() {
+    return allocated.clone();
+  }
+
+  /**
+   * This method describes the totals in a few lines
+   * @return the description
+   */
+
+  public synchronized String toString() {
+    /** The description put together so far. */
+    StringBuilder text = new StringBuilder();
+
+    text.append(String.format("%d files, %d bytes -> %d bytes (ratio %.3f), %.3f bits/byte, %.1f MB/s per thread%n",
+                              fileCount, bytesIn, bytesOut, getRatio(), getAverageCodeLength(), getThroughput()));
+    for (int phase = 0; phase < nanos.length; phase++) {
+      text.append(String.format("  %-7s %10.3f ms", EncodeMetrics.PHASES[phase], nanos[phase] / 1e6));
+      if (allocated[phase] >= 0) {
+        text.append(String.format(" %12d bytes allocated", allocated[phase]));
+      }
+      text.append(String.format("%n"));
+    }
+    return text.toString();
+  }
+}
@@ -0,0 +1,80 @@
+/**
+ * [EncodeStatsMBean.java]
+ * The program holds the interface that JMX uses to show the totals kept by the EncodeStats class, such as in JConsole.
+ * JMX only shows the methods of a public interface whose name is the class name followed by MBean.
+ * @author Braydon Wang
+ * @version 1.1, Oct 18, 2026
+ */
+
+public interface EncodeStatsMBean {
+
+  /**
+   * This method returns the number of files encoded so far
+   * @return the number of files
+   */
+
+  long getFileCount();
+
+  /**
+   * This method returns the number of original bytes encoded so far
+   * @return the number of bytes
+   */
+
+  long getBytesIn();
+
+  /**
+   * This method returns the number of bytes written to .MZIP files so far
+   * @return the number of bytes
+   */
+
+  long getBytesOut();
+
+  /**
+   * This method returns the size of every .MZIP file compared to every original file
+   * @return the ratio
+   */
+
+  double getRatio();
+
+  /**
+   * This method returns the number of original megabytes encoded every second of encoding time
+   * @return the throughput
+   */
+
+  double getThroughput();
+
+  /**
+   * This method returns the throughput of the last file encoded
+   * @return the throughput
+   */
+
+  double getLastThroughput();
+
+  /**
+   * This method returns the average number of bits used for every original byte
+   * @return the number of bits
+   */
+
+  double getAverageCodeLength();
+
+  /**
+   * This method returns the time spent in every phase so far
+   * @return the time in milliseconds, indexed by the phase
+   */
+
+  double[] getPhaseMillis();
+
+  /**
+   * This method returns the name of every phase
+   * @return the names, in the same order as the times
+   */
+
+  String[] getPhaseNames();
+
+  /**
+   * This method returns the bytes allocated in every phase so far
+   * @return the number of bytes, indexed by the phase
+   */
+
+  long[] getPhaseAllocated();
+}
@@ -0,0 +1,206 @@
+/* -------- IMPORTS ---------- */
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+/* -------------------------- */
+
+/**
+ * [FrequencyCounter.java]
+ * The program holds the frequency counter class that counts how many times every byte appears in a file.
+ * The file is read in large chunks through a file channel instead of one byte at a time,
+ * and every byte is counted into a primitive array of 256 counters indexed by the unsigned byte value.
+ * A file can also be counted one window at a time, straight from memory when it is mapped with the MappedInput class,
+ * or from the buffers of the AsyncReader class while the next ones are being read.
+ * @author Braydon Wang
+ * @version 1.1, Oct 18, 2026
+ */
+
+class FrequencyCounter {
+
+  /** The number of bytes read from the file in every chunk. */
+  static final int BUFFER_SIZE = 1 << 18;
+
+  /**
+   * This method counts the frequency of every byte in the specified file
+   * @param name  the name of the file being read
+   * @return           the frequency of every byte, indexed by the unsigned value of the byte
+   * @throws IOException if the file cannot be read
+   */
+
+  public static long[] countFrequencies(String name) throws IOException {
+    /** The frequency of every byte value in the file. */
+    long[] frequency = new long[256];
+    /** The file input stream used to open the channel to the file. */
+    FileInputStream in = null;
+
+    try {
+      in = new FileInputStream(name);
+      /** The channel that the chunks of the file are read through. */
+      FileChannel channel = in.getChannel();
+      /** The buffer that holds the current chunk of the file. */
+      ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+      //Read the file one chunk at a time until the end is reached
+      while (channel.read(buffer) != -1) {
+        countFrequencies(frequency, buffer.array(), 0, buffer.position());
+        buffer.clear();
+      }
+    } finally {
+      //Closing the input class
+      if (in != null) {
+        in.close();
+      }
+    }
+    return frequency;
+  }
+
+  /**
+   * This method counts how many times every byte comes right after every other byte in the specified file.
+   * The first byte of the file is counted as coming after byte 0.
+   * @param name  the name of the file being read
+   * @return           the frequency of every pair, at the index of the earlier byte shifted left by 8 bits plus the later byte
+   * @throws IOException if the file cannot be read
+   */
+
+  public static long[] countContextFrequencies(String name) throws IOException {
+    /** The frequency of every pair of bytes in the file. */
+    long[] frequency = new long[256 * 256];
+    /** The chunk of the file currently being counted. */
+    byte[] buffer = new byte[BUFFER_SIZE];
+    /** The earlier byte of the current pair shifted left by 8 bits, starting with byte 0. */
+    int context = 0;
+    /** The number of bytes read into the chunk. */
+    int count;
+    /** The file input stream used to read the file. */
+    FileInputStream in = new FileInputStream(name);
+
+    try {
+      while ((count = in.read(buffer)) != -1) {
+        for (int i = 0; i < count; i++) {
+          frequency[context | (buffer[i] & 0xFF)]++;
+          context = (buffer[i] & 0xFF) << 8;
+        }
+      }
+    } finally {
+      in.close();
+    }
+    return frequency;
+  }
+
+  /**
+   * This method counts the frequency of every pair of bytes in the specified file, reading the file two bytes at a time.
+   * The last byte of a file with an odd number of bytes is counted as a pair with a 0 after it.
+   * @param name  the name of the file being read
+   * @return           the frequency of every pair, at the index of the first byte shifted left by 8 bits plus the second byte
+   * @throws IOException if the file cannot be read
+   */
+
+  public static long[] countPairFrequencies(String name) throws IOException {
+    /** The frequency of every pair of bytes in the file. */
+    long[] frequency = new long[256 * 256];
+    /** The chunk of the file currently being counted. */
+    byte[] buffer = new byte[BUFFER_SIZE];
+    /** The first byte of a pair that was split between two chunks, or -1 if there is none. */
+    int first = -1;
+    /** The number of bytes read into the chunk. */
+    int count;
+    /** The file input stream used to read the file. */
+    FileInputStream in = new FileInputStream(name);
+
+    try {
+      while ((count = in.read(buffer)) != -1) {
+        /** The index of the next byte in the chunk. */
+        int i = 0;
+        if (first >= 0 && count > 0) {
+          frequency[(first << 8) | (buffer[i++] & 0xFF)]++;
+          first = -1;
+        }
+        for (; i + 1 < count; i += 2) {
+          frequency[((buffer[i] & 0xFF) << 8) | (buffer[i + 1] & 0xFF)]++;
+        }
+        if (i < count) {
+          first = buffer[i] & 0xFF;
+        }
+      }
+    } finally {
+      in.close();
+    }
+    if (first >= 0) {
+      frequency[first << 8]++;
+    }
+    return frequency;
+  }
+
+  /**
+   * This method finds the entropy of a message from its frequencies, which is the fewest bits that any code
+   * giving every byte its own representation could encode it in
+   * @param frequency  the frequency of every byte in the message
+   * @return                 the entropy of the whole message, in bits
+   */
+
+  public static double entropyBits(long[] frequency) {
+    /** The number of bytes in the message. */
+    long total = 0;
+    for (int x = 0; x < frequency.length; x++) {
+      total += frequency[x];
+    }
+
+    /** The entropy counted so far. */
+    double bits = 0;
+    for (int x = 0; x < frequency.length; x++) {
+      //Every appearance of a byte costs at least -log2 of its probability
+      if (frequency[x] > 0) {
+        bits -= frequency[x] * (Math.log((double)frequency[x] / total) / Math.log(2));
+      }
+    }
+    return bits;
+  }
+
+  /**
+   * This method counts the frequency of every byte in a file that is read one window at a time
+   * @param input  the file, such as a mapped file, which is read from the start
+   * @return           the frequency of every byte, indexed by the unsigned value of the byte
+   * @throws IOException if the file cannot be read
+   */
+
+  public static long[] countFrequencies(WindowSource input) throws IOException {
+    /** The frequency of every byte value in the file. */
+    long[] frequency = new long[256];
+    /** The current window of the file. */
+    ByteBuffer window;
+
+    input.rewind();
+    while ((window = input.nextWindow()) != null) {
+      countFrequencies(frequency, window);
+    }
+    return frequency;
+  }
+
+  /**
+   * This method adds the remaining bytes of a buffer to the frequency counters, without moving the buffer's position
+   * @param frequency  the frequency of every byte value so far
+   * @param data           the buffer holding the bytes
+   */
+
+  public static void countFrequencies(long[] frequency, ByteBuffer data) {
+    for (int i = data.position(); i < data.limit(); i++) {
+      frequency[data.get(i) & 0xFF]++;
+    }
+  }
+
+  /**
+   * This method adds the bytes in a section of an array to the frequency counters
+   * @param frequency  the frequency of every byte value so far
+   * @param data           the array holding the bytes
+   * @param offset        the index of the first byte to count
+   * @param length        the number of bytes to count
+   */
+
+  public static void countFrequencies(long[] frequency, byte[] data, int offset, int length) {
+    for (int i = offset; i < offset + length; i++) {
+      //The byte is masked so that negative bytes map to the upper half of the array
+      frequency[data[i] & 0xFF]++;
+    }
+  }
+}
@@ -0,0 +1,343 @@
+/* -------- IMPORTS ---------- */
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Random;
+import java.util.function.LongSupplier;
+/* -------------------------- */
+
+/**
+ * [HuffmanBenchmark.java]
+ * The program measures every phase of encoding on its own, so that a change to one phase can be checked for regressions.
+ * The phases are counting frequencies, building the priority queue and binary tree, finding the representations,
+ * packing the bits and writing the header, and every phase is run over four made-up files:
+ * uniformly random bytes, skewed text, structured binary records and a tiny file.
+ * Every phase is warmed up first, then run repeatedly for a fixed time in every measured round.
+ * The program prints the time of a single run, the speed in MB/s for the phases that go over every byte of the file,
+ * and the bytes allocated per run and per second, which are read from the JVM's per-thread allocation counter when it has one.
+ * The tree, codes and header phases only work on the 256 frequencies, so their time does not depend on the size of the file and no speed is printed.
+ * With the -size option the size of the larger files is set, and with -rounds and -time the number and length of the measured rounds.
+ * This is a quick check that needs nothing but the JDK; the same phases and files are measured with JMH by the benchmark.EncodePhaseBenchmark class,
+ * which is built with "mvn -Pjmh package" and takes care of forking, dead code and the GC and allocation profiler.
+ * @author Braydon Wang
+ * @version 1.1, Oct 18, 2026
+ */
+
+class HuffmanBenchmark {
+
+  /** The number of bytes in the tiny file. */
+  static final int TINY_SIZE = 64;
+  /** The seed of the random numbers, so that every run measures the same files. */
+  static final long SEED = 42;
+
+  /** The names of the made-up files. */
+  static final String[] FILES = {"uniform", "text", "binary", "tiny"};
+
+  /** A value built from every result, printed at the end so that the JVM cannot skip the work being measured. */
+  private static long sink;
+
+  public static void main(String[] args) throws Exception {
+
+    /** The number of bytes in every file except the tiny one. */
+    int size = 4 << 20;
+    /** The number of measured rounds of every phase. */
+    int rounds = 5;
+    /** The number of milliseconds in every round, and in the warm up. */
+    long time = 500;
+
+    //Reading the options given on the command line
+    for (int i = 0; i < args.length; i++) {
+      if (args[i].equals("-size")) {
+        size = Integer.parseInt(args[++i]);
+      } else if (args[i].equals("-rounds")) {
+        rounds = Integer.parseInt(args[++i]);
+      } else if (args[i].equals("-time")) {
+        time = Long.parseLong(args[++i]);
+      } else {
+        throw new IllegalArgumentException("Unknown option: " + args[i]);
+      }
+    }
+
+    System.out.printf("%-8s %-10s %14s %12s %14s %12s%n", "file", "phase", "ns/op", "MB/s", "alloc B/op", "alloc MB/s");
+    for (String name: FILES) {
+      /** The made-up file. */
+      byte[] data = file(name, size);
+      for (Phase phase: phases(data)) {
+        measure(name, data.length, phase, rounds, time);
+      }
+    }
+    System.out.println("(" + sink + ")");
+  }
+
+  /**
+   * This method makes one of the made-up files
+   * @param name  the name of the file, which is one of FILES
+   * @param size  the number of bytes in every file except the tiny one
+   * @return        the bytes of the file
+   */
+
+  static byte[] file(String name, int size) {
+    if (name.equals("uniform")) {
+      return uniform(size);
+    } else if (name.equals("text")) {
+      return text(size);
+    } else if (name.equals("binary")) {
+      return binary(size);
+    } else if (name.equals("tiny")) {
+      return text(TINY_SIZE);
+    }
+    throw new IllegalArgumentException("Unknown file: " + name);
+  }
+
+  /**
+   * This method creates the phases being measured for one of the made-up files, which the JMH benchmark calls once before it measures them
+   * @param name  the name of the file, which is one of FILES
+   * @param size  the number of bytes in every file except the tiny one
+   * @return        the phases, in the order they happen when a file is encoded
+   * @throws IOException never, since the bits are packed into an array
+   */
+
+  static Phase[] phases(String name, int size) throws IOException {
+    return phases(file(name, size));
+  }
+
+  /**
+   * This method creates the phases being measured for a file, doing the earlier phases once so that every phase has its input ready
+   * @param data  the original bytes of the file
+   * @return        the phases, in the order they happen when a file is encoded
+   * @throws IOException never, since the bits are packed into an array
+   */
+
+  private static Phase[] phases(final byte[] data) throws IOException {
+    /** The frequency of every byte in the file. */
+    final long[] frequency = new long[256];
+    FrequencyCounter.countFrequencies(frequency, data, 0, data.length);
+    /** The counters that the frequency phase adds to, kept apart so that the other phases always see the same frequencies. */
+    final long[] counters = new long[256];
+    /** The binary tree built from the frequencies. */
+    final BinaryTree tree = HuffmanEncoder.buildTree(frequency);
+    /** The canonical code table built from the binary tree. */
+    final CodeTable table = CodeTable.fromLengths(CodeTable.fromTree(tree).getLengths());
+    /** The array that the bits are packed into, large enough for the whole message. */
+    final byte[] packed = new byte[(int)(table.encodedBits(frequency) / 8) + 8];
+    /** The bit packer that is reused for every run. */
+    final BitPacker packer = new BitPacker(packed);
+    /** The stream that the header is written to, which is emptied before every run. */
+    final ByteArrayOutputStream headerOut = new ByteArrayOutputStream();
+
+    return new Phase[] {
+      new Phase("frequency", true) {
+        long run() {
+          FrequencyCounter.countFrequencies(counters, data, 0, data.length);
+          return counters[data[0] & 0xFF];
+        }
+      },
+      new Phase("tree", false) {
+        long run() {
+          return HuffmanEncoder.buildTree(frequency).hashCode();
+        }
+      },
+      new Phase("codes", false) {
+        long run() {
+          return CodeTable.fromLengths(CodeTable.fromTree(tree).getLengths()).getCodes()[data[0] & 0xFF];
+        }
+      },
+      new Phase("packing", true) {
+        long run() throws IOException {
+          packer.reset(null);
+          packer.pack(data, 0, data.length, table);
+          return packer.finish() + packer.getNumberOfBytes();
+        }
+      },
+      new Phase("header", false) {
+        long run() throws IOException {
+          headerOut.reset();
+          new MzipHeader("FILE.TXT", tree.convertToString(), 0).write(headerOut);
+          return headerOut.size();
+        }
+      }
+    };
+  }
+
+  /**
+   * This method warms up a phase and then prints the results of its measured rounds
+   * @param name     the name of the file
+   * @param length   the number of bytes in the file
+   * @param phase   the phase being measured
+   * @param rounds  the number of measured rounds
+   * @param time      the number of milliseconds in every round
+   * @throws IOException if the phase fails
+   */
+
+  private static void measure(String name, int length, Phase phase, int rounds, long time) throws IOException {
+    //Run the phase long enough for the JVM to compile it before anything is measured
+    runFor(phase, time);
+
+    for (int r = 0; r < rounds; r++) {
+      /** The bytes allocated by this thread before the round, or -1 if they cannot be counted. */
+      long allocatedBefore = EncodeMetrics.allocatedBytes();
+      /** The time at the start of the round, in nanoseconds. */
+      long start = System.nanoTime();
+      /** The number of times the phase was run. */
+      long operations = runFor(phase, time);
+      /** The length of the round, in nanoseconds. */
+      long elapsed = System.nanoTime() - start;
+      /** The bytes allocated by this thread during the round, or -1 if they cannot be counted. */
+      long allocated = allocatedBefore < 0 ? -1 : EncodeMetrics.allocatedBytes() - allocatedBefore;
+
+      /** The time of a single run, in nanoseconds. */
+      double nanosPerOperation = (double)elapsed / operations;
+      System.out.printf("%-8s %-10s %14.1f %12s %14s %12s%n", name, phase.name,
+                        nanosPerOperation,
+                        phase.overInput ? String.format("%.1f", length / nanosPerOperation * 1e9 / (1 << 20)) : "-",
+                        allocated < 0 ? "n/a" : String.format("%.1f", (double)allocated / operations),
+                        allocated < 0 ? "n/a" : String.format("%.1f", allocated * 1e9 / elapsed / (1 << 20)));
+    }
+  }
+
+  /**
+   * This method runs a phase over and over until the given time has passed
+   * @param phase  the phase being run
+   * @param time     the number of milliseconds to run it for
+   * @return            the number of times the phase was run
+   * @throws IOException if the phase fails
+   */
+
+  private static long runFor(Phase phase, long time) throws IOException {
+    /** The time when the runs stop, in nanoseconds. */
+    long end = System.nanoTime() + time * 1000000L;
+    /** The number of times the phase was run. */
+    long operations = 0;
+
+    //The clock is only checked every few runs, so that short phases are not slowed down by it
+    do {
+      for (int i = 0; i < 16; i++) {
+        sink += phase.run();
+      }
+      operations += 16;
+    } while (System.nanoTime() < end);
+    return operations;
+  }
+
+  /**
+   * This method makes a file of uniformly random bytes, which cannot be compressed
+   * @param size  the number of bytes
+   * @return        the bytes of the file
+   */
+
+  static byte[] uniform(int size) {
+    /** The bytes of the file. */
+    byte[] data = new byte[size];
+    new Random(SEED).nextBytes(data);
+    return data;
+  }
+
+  /**
+   * This method makes a file of skewed text, with words made of common letters more often than rare ones
+   * @param size  the number of bytes
+   * @return        the bytes of the file
+   */
+
+  static byte[] text(int size) {
+    /** The letters, from most to least common. */
+    String letters = "etaoinshrdlcumwfgypbvkjxqz";
+    /** The random numbers used to pick letters. */
+    Random random = new Random(SEED);
+    /** The bytes of the file. */
+    byte[] data = new byte[size];
+
+    for (int i = 0; i < size; i++) {
+      //A space ends about one word in six letters, and a new line ends about one line in sixty
+      if (random.nextInt(6) == 0) {
+        data[i] = (byte)(random.nextInt(10) == 0 ? '\n' : ' ');
+      } else {
+        /** A random number that is small much more often than it is large, so common letters are picked more often. */
+        double skew = random.nextDouble();
+        data[i] = (byte)letters.charAt((int)(skew * skew * skew * letters.length()));
+      }
+    }
+    return data;
+  }
+
+  /**
+   * This method makes a file of binary records, each holding a counter, a small random number and a fixed flag,
+   * which is what many binary formats look like
+   * @param size  the number of bytes
+   * @return        the bytes of the file
+   */
+
+  static byte[] binary(int size) {
+    /** The random numbers used in every record. */
+    Random random = new Random(SEED);
+    /** The bytes of the file. */
+    byte[] data = new byte[size];
+
+    for (int i = 0; i + 16 <= size; i += 16) {
+      /** The number of the current record. */
+      int counter = i / 16;
+      /** A small random number stored in the record. */
+      int value = (int)Math.abs(random.nextGaussian() * 1000);
+      for (int b = 0; b < 4; b++) {
+        data[i + b] = (byte)(counter >>> (24 - 8 * b));
+        data[i + 4 + b] = (byte)(value >>> (24 - 8 * b));
+      }
+      data[i + 8] = (byte)0x7F;
+    }
+    return data;
+  }
+
+  /**
+   * [Phase]
+   * The class is one phase of encoding that can be run over and over on the same input.
+   * It is a LongSupplier so that the JMH benchmark, which cannot name classes outside a package, can run it without boxing the result.
+   */
+
+  abstract static class Phase implements LongSupplier {
+
+    /** The name of the phase. */
+    private String name;
+    /** Whether the phase goes over every byte of the file, so that its speed in MB/s means something. */
+    private boolean overInput;
+
+    /**
+     * Creates an object from the phase class.
+     * @param name         the name of the phase
+     * @param overInput  whether the phase goes over every byte of the file
+     */
+
+    Phase(String name, boolean overInput) {
+      this.name = name;
+      this.overInput = overInput;
+    }
+
+    /**
+     * This method runs the phase once for the JMH benchmark
+     * @return a value from the result, so that the work cannot be skipped
+     */
+
+    public long getAsLong() {
+      try {
+        return run();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    /**
+     * This method returns the name of the phase
+     * @return the name
+     */
+
+    public String toString() {
+      return name;
+    }
+
+    /**
+     * This method runs the phase once
+     * @return a value from the result, so that the work cannot be skipped
+     * @throws IOException if the phase fails
+     */
+
+    abstract long run() throws IOException;
+  }
+}
@@ -1,8 +1,14 @@
 /* -------- IMPORTS ---------- */
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.Scanner;
+import java.io.BufferedOutputStream;
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.CheckedOutputStream;
 /* -------------------------- */
 
 /**
@@ -12,7 +18,37 @@ import java.io.FileOutputStream;
  * Using this binary tree, the program can map every byte in the file to a shorter binary representation based on frequency.
  * Essentially, more frequent bytes are represented with shorter bits, while less frequent ones may have more bits.
  * The program will display into a seperate file the data's new content, including the string representation of the tree and the encoded message.
- * It is up to the other program to decode the message using the specified binary tree.
+ * The HuffmanDecoding program decodes the message back into the original file using the specified binary tree.
+ * With the -canonical option, the tree is replaced by the length of every byte's canonical representation.
+ * With the -maxbits option, no representation is longer than the given number of bits and the representations are canonical.
+ * With the -blocksize option, the file is split into blocks of that many bytes that are encoded by several threads (set with -threads).
+ * With the -interleave option, the bytes of every block are dealt out in turn to four streams that are packed and decoded side by side,
+ * and a file without a block size is split into blocks of 1 MB.
+ * With the -mmap option, the file is mapped into memory and both passes read it from the page cache instead of through a stream.
+ * With the -pipeline option, both passes read the file ahead with asynchronous reads, and the encoded message is written by a separate thread,
+ * so reading, encoding and writing overlap instead of taking turns.
+ * A file that would be made smaller by less than 1% (set with -minsavings) is stored as it is instead of being encoded,
+ * which is checked from the entropy of the frequencies before the tree is built, and again from the exact size before the second pass.
+ * The -order1 and -pairs options check the exact size before the second pass too, and a file split into blocks, or encoded with -adaptive,
+ * is checked once it is written and written again as stored if it did not save enough.
+ * The standard input cannot be read twice, so with -adaptive it is only kept from growing by more than a few bytes for every block.
+ * With the -train option, a code table is trained from every file given and saved under a name instead of encoding anything,
+ * and with the -table option, a file is encoded in a single pass with that saved table, which the header names instead of describing.
+ * Saved tables are kept in the tables directory, which can be changed with the -tables option.
+ * With the -order1 option, every byte is encoded with the code table of the byte before it, and all 256 tables are written as lengths.
+ * With the -pairs option, the file is encoded two bytes at a time, so every pair of bytes gets its own representation.
+ * With the -batch option, every file in a directory, or in a list of names, is encoded in one run by several threads (set with -threads).
+ * The .MZIP file of every file in a batch is named after its whole name, such as app.log.1.MZIP, so that no two files are written to the same one.
+ * Every file of a batch is encoded as a single message, so -blocksize, -adaptive, -order1, -pairs, -mmap and -pipeline cannot be given with it.
+ * With the -cache option, a batch keeps that many recently built code tables by a fingerprint of their frequencies,
+ * and a file like an earlier one reuses its table when the table costs no more than 1% (set with -tolerance) over the entropy of the file,
+ * which no table built for the file can beat, so a reused table never costs more than that over a built one.
+ * With the -adaptive option, the file is encoded in a single pass, one block at a time, with representations learned from the blocks before,
+ * so a file name of "-" can be given to encode the standard input, such as a pipe, into the standard output.
+ * With the -seekindex option, the bit offset of every interval of that many original bytes is written after the encoded message,
+ * so that the MzipReader class can decode any range of the file without decoding everything before it.
+ * With the -metrics option, the time and allocations of every phase, the sizes and the bits per byte are printed to the error stream,
+ * and with the -jmx option, the totals are registered with JMX, so that a long batch can be watched while it runs.
  * @author Braydon Wang
  * @version 1.0, Oct 22, 2020
  */
@@ -20,234 +56,691 @@ import java.io.FileOutputStream;
 class HuffmanCoding {
   public static void main(String[] args) throws Exception{
     
-    /** The scanner class used for input from the console. */
-    Scanner sc = new Scanner(System.in);
-    
-    //Getting the name of the file that the user specifies
-    System.out.println("Enter the name of the file that you want to read from: ");
+    /** Whether the bytes are given canonical representations that are stored in the file as lengths only. */
+    boolean canonical = false;
+    /** The longest representation allowed, or 0 if the length is not limited. */
+    int maxBits = 0;
+    /** The number of original bytes in every block, or 0 if the file is not split into blocks. */
+    int blockSize = 0;
+    /** The number of threads that encode blocks. */
+    int threads = Runtime.getRuntime().availableProcessors();
+    /** Whether the file is encoded in a single pass with representations that change from block to block. */
+    boolean adaptive = false;
+    /** Whether every byte is given representations that depend on the byte before it. */
+    boolean order1 = false;
+    /** Whether the symbols are pairs of bytes instead of single bytes. */
+    boolean pairs = false;
+    /** Whether every block is split into interleaved streams. */
+    boolean interleave = false;
+    /** The smallest saving, as a percentage of the original size, that is worth encoding for; otherwise the file is stored. */
+    double minSavings = 1;
+    /** The number of original bytes between checkpoints of the seek index, or 0 if no index is written. */
+    long seekInterval = 0;
+    /** Whether the file is mapped into memory instead of being read through a stream. */
+    boolean mmap = false;
+    /** Whether reading and writing overlap with encoding through asynchronous reads and a writer thread. */
+    boolean pipeline = false;
+    /** The name of the code table to train from the files given, or null if a file is being encoded. */
+    String trainId = null;
+    /** The name of the saved code table to encode with, or null if the table is built from the file. */
+    String tableId = null;
+    /** The directory that saved code tables are kept in. */
+    String tablesDirectory = CodeTableStore.DEFAULT_DIRECTORY;
+    /** The directory or list of files to encode in one run, or null if a single file is encoded. */
+    String batch = null;
+    /** The number of code tables a batch keeps for reuse, or 0 if every file builds its own. */
+    int cacheSize = 0;
+    /** The percentage that a cached table may cost over a table built for the file and still be reused. */
+    double tolerance = CodeTableCache.DEFAULT_TOLERANCE * 100;
+    /** Whether the metrics of the run are printed when it finishes. */
+    boolean printMetrics = false;
+    /** Whether the totals of the run are registered with JMX. */
+    boolean jmx = false;
+    /** The names of the files given on the command line. */
+    ArrayList<String> names = new ArrayList<String>();
     /** The name of the inputted file. */
-    String name = sc.next();
+    String name = null;
     
-    /** The map used to count the frequency of every byte in the file. */
-    HashMap<Byte,Integer> frequency = new HashMap<Byte,Integer>();
-    /** The file input stream class used to get input in the form of bytes. */
-    FileInputStream in = null;
+    //Reading the options and the file name given on the command line
+    for (int i = 0; i < args.length; i++) {
+      /** The current argument. */
+      String arg = args[i];
+      if (arg.equals("-canonical")) {
+        canonical = true;
+      } else if (arg.equals("-maxbits")) {
+        maxBits = Integer.parseInt(args[++i]);
+      } else if (arg.equals("-blocksize")) {
+        blockSize = Integer.parseInt(args[++i]);
+      } else if (arg.equals("-threads")) {
+        threads = Integer.parseInt(args[++i]);
+      } else if (arg.equals("-minsavings")) {
+        minSavings = Double.parseDouble(args[++i]);
+      } else if (arg.equals("-seekindex")) {
+        seekInterval = Long.parseLong(args[++i]);
+        if (seekInterval <= 0) {
+          throw new IllegalArgumentException("The seek index interval must be positive");
+        }
+      } else if (arg.equals("-mmap")) {
+        mmap = true;
+      } else if (arg.equals("-pipeline")) {
+        pipeline = true;
+      } else if (arg.equals("-interleave")) {
+        interleave = true;
+      } else if (arg.equals("-pairs")) {
+        pairs = true;
+      } else if (arg.equals("-order1")) {
+        order1 = true;
+      } else if (arg.equals("-metrics")) {
+        printMetrics = true;
+      } else if (arg.equals("-jmx")) {
+        jmx = true;
+      } else if (arg.equals("-adaptive")) {
+        adaptive = true;
+      } else if (arg.equals("-train")) {
+        trainId = args[++i];
+      } else if (arg.equals("-table")) {
+        tableId = args[++i];
+      } else if (arg.equals("-batch")) {
+        batch = args[++i];
+      } else if (arg.equals("-cache")) {
+        cacheSize = Integer.parseInt(args[++i]);
+      } else if (arg.equals("-tolerance")) {
+        tolerance = Double.parseDouble(args[++i]);
+      } else if (arg.equals("-tables")) {
+        tablesDirectory = args[++i];
+      } else if (arg.startsWith("-") && arg.length() > 1) {
+        throw new IllegalArgumentException("Unknown option: " + arg);
+      } else {
+        names.add(arg);
+      }
+    }
     
-    //Getting input from the file
-    try {
-      //Initializing input from the specified file
-      in = new FileInputStream(name);
-      int c;
-      
-      //Reading the individual bytes in the file
-      while ((c = in.read()) != -1) {
-        /** The current byte read from the file. */
-        byte ch = (byte)c;
-        //Updating the frequency of the byte encountered
-        frequency.put(ch,frequency.getOrDefault(ch,0)+1);
+    //Interleaved streams are split from blocks encoded with one code table, so a file without a block size gets the default one
+    if (interleave) {
+      if (adaptive || order1 || pairs || batch != null) {
+        throw new IllegalArgumentException("The -interleave option only works for a file encoded in blocks with a single code table");
       }
-    } finally {
-      //Closing the input class
-      if (in != null) {
-        in.close();
+      if (blockSize == 0) {
+        blockSize = BlockEncoder.DEFAULT_BLOCK_SIZE;
       }
     }
+    //Only a single encoded message is indexed, since blocks can already be decoded on their own
+    if (seekInterval > 0 && (adaptive || order1 || pairs || blockSize > 0 || batch != null)) {
+      throw new IllegalArgumentException("The -seekindex option only works for a file encoded as a single message");
+    }
+    //A batch writes every file as a single message read through a stream, so the options for other layouts or ways of reading do not apply
+    if (batch != null && (blockSize > 0 || adaptive || order1 || pairs || mmap || pipeline)) {
+      throw new IllegalArgumentException("The -blocksize, -adaptive, -order1, -pairs, -mmap and -pipeline options do not work with the -batch option");
+    }
+    //A single file builds one table, so only a batch has earlier tables to reuse
+    if (cacheSize > 0 && batch == null) {
+      throw new IllegalArgumentException("The -cache option only works with the -batch option");
+    }
+    //Both options choose how the file is read, so only one can be given
+    if (mmap && pipeline) {
+      throw new IllegalArgumentException("The -mmap and -pipeline options cannot be used together");
+    }
     
-    /** A priority queue used to sort the frequency of every node in the binary tree. */
-    SimplePriorityQueue<Byte> q = new SimplePriorityQueue<Byte>();
-    /** The binary tree used to find the new representation of every byte in the file. */
-    BinaryTree<Byte> tree = new BinaryTree<Byte>();
+    /** The store that saved code tables are kept in. */
+    CodeTableStore store = new CodeTableStore(tablesDirectory);
+    /** The totals of every file encoded in the run, or null if nobody is watching them. */
+    EncodeStats stats = null;
+    if (printMetrics || jmx) {
+      stats = new EncodeStats();
+      if (jmx) {
+        stats.register();
+      }
+    }
     
-    //Place every byte and its corresponding frequencies in the queue as a leaf node of the binary tree
-    for (byte x: frequency.keySet()) {
-      q.enqueue(x,frequency.get(x),null,null);
+    //Training reads every file given into one code table and saves it, without encoding anything
+    if (trainId != null) {
+      if (names.isEmpty()) {
+        throw new IllegalArgumentException("No files were given to train the code table " + trainId);
+      }
+      store.save(trainId, CodeTableStore.train(names.toArray(new String[names.size()]), maxBits));
+      return;
     }
     
-    //Loop through every node in the priority queue until there is only one left
-    while (q.size() > 1) {
-      
-      /** The smallest frequency node in the queue. */
-      Node<Byte> node1 = q.dequeue(); //remove it from the queue
-      /** The second smallest frequency in the queue. */
-      Node<Byte> node2 = q.dequeue(); //remove it from the queue
+    //A batch encodes every file it finds with one pool of threads and reports the total
+    if (batch != null) {
+      /** The encoder that shares the files between the threads. */
+      BatchEncoder batchEncoder = new BatchEncoder(canonical, maxBits, threads);
+      if (tableId != null) {
+        batchEncoder.setStoredTable(tableId, store.load(tableId));
+      }
+      batchEncoder.setListener(stats);
+      batchEncoder.setMinSavings(minSavings);
+      /** The cache of tables built for earlier files, or null if every file builds its own. */
+      CodeTableCache cache = null;
+      if (cacheSize > 0) {
+        cache = new CodeTableCache(cacheSize, tolerance / 100);
+        batchEncoder.setCache(cache);
+      }
+      /** The time when the batch started, in nanoseconds. */
+      long start = System.nanoTime();
+      batchEncoder.encodeAll(BatchEncoder.findFiles(batch));
+      /** The number of seconds the batch took. */
+      double seconds = (System.nanoTime() - start) / 1e9;
       
-      //Create a new node that has node1 and node2 as its leaves with the sum of both of their frequencies
-      //Add this new node back into the priority queue
-      q.enqueue(null,node1.getPriority()+node2.getPriority(),node1,node2);
+      System.out.printf("Encoded %d files, %d bytes into %d bytes in %.2f s (%.1f MB/s, %.1f files/s)%n",
+                        batchEncoder.getFileCount(), batchEncoder.getInputBytes(), batchEncoder.getOutputBytes(), seconds,
+                        batchEncoder.getInputBytes() / seconds / (1 << 20), batchEncoder.getFileCount() / seconds);
+      if (cache != null) {
+        System.out.printf("Code table cache: %d reused, %d built, %d rejected as too costly%n",
+                          cache.getHits(), cache.getMisses() + cache.getRejections(), cache.getRejections());
+      }
+      for (String failure: batchEncoder.getFailures()) {
+        System.err.println("Failed: " + failure);
+      }
+      if (printMetrics) {
+        System.err.print(stats);
+      }
+      return;
     }
     
-    //The last node in the queue is the root of the binary tree
-    tree.setRoot(q.dequeue());
-    
-    /** A hashmap that stores the new binary representation of each byte. */
-    HashMap<Byte,String> encodedBytes = new HashMap<Byte,String>();
-    //Traverse the binary tree to find the new encoded representation of every byte
-    tree.findEncodedBytes(encodedBytes);
+    //If no file name was given, ask the user for one
+    if (names.size() > 0) {
+      name = names.get(0);
+    } else {
+      /** The scanner class used for input from the console. */
+      Scanner sc = new Scanner(System.in);
+      
+      //Getting the name of the file that the user specifies
+      System.out.println("Enter the name of the file that you want to read from: ");
+      name = sc.next();
+    }
     
-    //Traverse the binary tree to get the string equivalent of the tree with brackets around nodes
-    String convertedString = tree.convertToString();
+    /** The file name containing the new encoded data with the extension of .MZIP, or "-" for the standard output. */
+    String fileName = "-";
+    /** The name of the original file with the extension in all caps, which is the first line of the header. */
+    String originalName = "-";
     
-    /** The number of letters of the file's extension. */
-    int lengthOfExtension = name.length() - name.indexOf(".") - 1;
-    /** The file name containing the new encoded data with the extension of .MZIP */
-    String fileName = name.substring(0,name.length()-lengthOfExtension-1) + ".MZIP";
-    /** The file output stream used to output bytes to a file. */
-    FileOutputStream out = new FileOutputStream(fileName);
+    //A name of "-" reads the standard input and writes the standard output, so the names stay as they are
+    if (!name.equals("-")) {
+      fileName = encodedName(name);
+      originalName = headerName(name);
+    }
+    /** The time and allocations of every phase of encoding the file. */
+    EncodeMetrics metrics = new EncodeMetrics();
     
-    //Output the filename of the original file with the extension in all caps
-    for (int i = 0; i < name.length(); i++) {
+    //An adaptive file is encoded in a single pass, so it can be read from a pipe and written as it is encoded
+    if (adaptive) {
+      /** The stream that the original bytes are read from. */
+      InputStream in = name.equals("-") ? System.in : new FileInputStream(name);
+      /** The stream that the encoded file is written to. */
+      OutputStream out = name.equals("-") ? System.out : new BufferedOutputStream(new FileOutputStream(fileName), FrequencyCounter.BUFFER_SIZE);
       
-      //Print the original file name excluding the extension as is
-      if (i < name.length()-lengthOfExtension) {
-        out.write(name.charAt(i)); 
-      } else {
-        //If the extension is already in caps, keep it as is
-        if (name.charAt(i) >= 'A' && name.charAt(i) <= 'Z') {
-          out.write(name.charAt(i)); 
-          
-        //Otherwise, convert the extension to capital letters
-        } else {
-          out.write(name.charAt(i)-32); 
+      if (blockSize == 0) {
+        blockSize = AdaptiveEncoder.DEFAULT_BLOCK_SIZE;
+      }
+      /** The header, which is written again with the checksum when the output is a file. */
+      MzipHeader header = new MzipHeader(originalName, "" + MzipHeader.ADAPTIVE_MARK, 0, blockSize, true);
+      /** The stream that finds the checksum of every byte written after the header. */
+      CheckedOutputStream checked = new CheckedOutputStream(out, new CRC32C());
+      if (!name.equals("-")) {
+        header.setOriginalLength(new File(name).length());
+      }
+      try {
+        header.write(out);
+        new AdaptiveEncoder(blockSize).encode(in, checked);
+        metrics.endPhase(EncodeMetrics.PACK);
+      } finally {
+        //Closing the input and output classes
+        in.close();
+        out.close();
+      }
+      //The standard output cannot go back to the header, so only a file gets the checksum and the metrics
+      if (!name.equals("-")) {
+        header.setChecksum((int)checked.getChecksum().getValue());
+        header.rewrite(fileName);
+        
+        //The size is only known once every block is written, so a file that did not save enough is written again as stored
+        if (!saves(new File(fileName).length(), new File(name).length(), minSavings)) {
+          writeStored(name, fileName, originalName, null);
+          metrics.endPhase(EncodeMetrics.WRITE);
+          report(metrics, stats, printMetrics, name, fileName, new File(name).length() * 8);
+          return;
         }
+        metrics.endPhase(EncodeMetrics.WRITE);
+        report(metrics, stats, printMetrics, name, fileName, (new File(fileName).length() - header.getLength()) * 8);
       }
+      return;
     }
     
-    //Carriage return
-    out.write(13);
-    //Moving to the next line (ascii numerical value of 'ENTER' = 10)
-    out.write(10);
+    //An order-1 file gives every byte a representation that depends on the byte before it
+    if (order1) {
+      /** The frequency of every byte after every other byte. */
+      long[] contextFrequency = FrequencyCounter.countContextFrequencies(name);
+      metrics.endPhase(EncodeMetrics.READ);
+      /** The code table of every context. */
+      ContextTable contexts = ContextTable.fromFrequencies(contextFrequency, maxBits > 0 ? maxBits : ContextTable.DEFAULT_MAX_BITS);
+      metrics.endPhase(EncodeMetrics.BUILD);
+      /** The number of bits in the final encoded message. */
+      long numberOfBits = contexts.encodedBits(contextFrequency);
+      
+      /** The header, which is written again once the checksum is known. */
+      MzipHeader header = new MzipHeader(originalName, MzipHeader.CONTEXT_MARK + contexts.lengthsToString(), (int)((8 - numberOfBits % 8) % 8));
+      header.setOriginalLength(new File(name).length());
+      
+      //The 256 tables make the header long, so a small or random file may not save enough with them
+      if (!saves(header.getLength() + (numberOfBits + 7) / 8, new File(name).length(), minSavings)) {
+        writeStored(name, fileName, originalName, null);
+        metrics.endPhase(EncodeMetrics.WRITE);
+        report(metrics, stats, printMetrics, name, fileName, new File(name).length() * 8);
+        return;
+      }
+      /** The file input stream class used to get input in the form of bytes. */
+      FileInputStream in = new FileInputStream(name);
+      /** The buffered stream used to output bytes to a file. */
+      OutputStream out = new BufferedOutputStream(new FileOutputStream(fileName), FrequencyCounter.BUFFER_SIZE);
+      /** The stream that finds the checksum of every byte written after the header. */
+      CheckedOutputStream checked = new CheckedOutputStream(out, new CRC32C());
+      
+      try {
+        header.write(out);
+        if (new ContextEncoder(contexts).encode(in, checked) != numberOfBits) {
+          throw new IOException("The file changed while it was being encoded");
+        }
+        metrics.endPhase(EncodeMetrics.PACK);
+      } finally {
+        //Closing the input and output classes
+        in.close();
+        out.close();
+      }
+      header.setChecksum((int)checked.getChecksum().getValue());
+      header.rewrite(fileName);
+      metrics.endPhase(EncodeMetrics.WRITE);
+      report(metrics, stats, printMetrics, name, fileName, numberOfBits);
+      return;
+    }
     
-    //Ouput the converted string that represents the binary tree
-    for (int i = 0; i < convertedString.length(); i++) {
-      out.write(convertedString.charAt(i));
+    //A file encoded two bytes at a time gives every pair of bytes a representation, written as lengths after a '$'
+    if (pairs) {
+      /** The frequency of every pair of bytes. */
+      long[] pairFrequency = FrequencyCounter.countPairFrequencies(name);
+      metrics.endPhase(EncodeMetrics.READ);
+      /** The code table of every pair of bytes. */
+      CodeTable pairTable = HuffmanEncoder.buildTable(pairFrequency, maxBits > 0 ? maxBits : PairEncoder.DEFAULT_MAX_BITS);
+      metrics.endPhase(EncodeMetrics.BUILD);
+      /** The number of bits in the final encoded message. */
+      long numberOfBits = pairTable.encodedBits(pairFrequency);
+      /** Whether the file has an odd number of bytes. */
+      boolean oddByte = new File(name).length() % 2 == 1;
+      
+      /** The header, which is written again once the checksum is known. */
+      MzipHeader header = new MzipHeader(originalName, MzipHeader.PAIRS_MARK + (oddByte ? "1" : "0") + pairTable.lengthsToString(), (int)((8 - numberOfBits % 8) % 8));
+      header.setOriginalLength(new File(name).length());
+      
+      //The lengths of every pair make the header long, so a small or random file may not save enough with them
+      if (!saves(header.getLength() + (numberOfBits + 7) / 8, new File(name).length(), minSavings)) {
+        writeStored(name, fileName, originalName, null);
+        metrics.endPhase(EncodeMetrics.WRITE);
+        report(metrics, stats, printMetrics, name, fileName, new File(name).length() * 8);
+        return;
+      }
+      /** The file input stream class used to get input in the form of bytes. */
+      FileInputStream in = new FileInputStream(name);
+      /** The buffered stream used to output bytes to a file. */
+      OutputStream out = new BufferedOutputStream(new FileOutputStream(fileName), FrequencyCounter.BUFFER_SIZE);
+      /** The stream that finds the checksum of every byte written after the header. */
+      CheckedOutputStream checked = new CheckedOutputStream(out, new CRC32C());
+      
+      try {
+        header.write(out);
+        if (new PairEncoder(pairTable).encode(in, checked) != numberOfBits) {
+          throw new IOException("The file changed while it was being encoded");
+        }
+        metrics.endPhase(EncodeMetrics.PACK);
+      } finally {
+        //Closing the input and output classes
+        in.close();
+        out.close();
+      }
+      header.setChecksum((int)checked.getChecksum().getValue());
+      header.rewrite(fileName);
+      metrics.endPhase(EncodeMetrics.WRITE);
+      report(metrics, stats, printMetrics, name, fileName, numberOfBits);
+      return;
     }
     
-    //Carriage return
-    out.write(13);
-    //Moving to the next line
-    out.write(10);
+    /** The file read one window at a time with the -mmap or -pipeline option, otherwise null. */
+    WindowSource source = null;
+    /** The frequency of every byte in the file, indexed by the unsigned value of the byte, or null if a saved table is used. */
+    long[] frequency = null;
     
-    /** A variable used to store the number of bits in the final encoded message. */
-    int numberOfBits = 0;
-    //For every byte in the file, add the number of bits that its new representation will contribute
-    for (byte x: frequency.keySet()) {
-      //The length of the new binary representation of the byte multiplied with the frequency of that specific byte in the file
-      //is how many bits that it will take up in the encoded message
-      numberOfBits += frequency.get(x) * encodedBytes.get(x).length();
+    if (mmap) {
+      source = new MappedInput(name);
+    } else if (pipeline) {
+      source = new AsyncReader(name, AsyncReader.DEFAULT_BUFFER_SIZE, AsyncReader.DEFAULT_DEPTH);
+    }
+    //A saved table is used as it is, so the file does not need to be counted first
+    if (tableId == null) {
+      if (source != null) {
+        frequency = FrequencyCounter.countFrequencies(source);
+      } else {
+        frequency = FrequencyCounter.countFrequencies(name);
+      }
+      metrics.endPhase(EncodeMetrics.READ);
+      metrics.setEntropy(frequency);
+      
+      //No code can beat the entropy, so a file that would not save enough even at the entropy is stored without building a tree
+      if (!saves(FrequencyCounter.entropyBits(frequency) / 8, frequency, minSavings)) {
+        writeStored(name, fileName, originalName, source);
+        metrics.endPhase(EncodeMetrics.WRITE);
+        report(metrics, stats, printMetrics, name, fileName, new File(name).length() * 8);
+        return;
+      }
     }
     
-    /** The number of bytes in the encoded message after calculating the number of bits. */
-    int numberOfBytes = (int)Math.ceil(numberOfBits/8.0);
-    /** The final encoded message with every byte filled with the original byte's corresponding representation. */
-    byte[] encodedMessage = new byte[numberOfBytes];
-    /** The index of the encoded message array. */
-    int index = 0;
-    /** The number of extra bits at the end of the encoded message. */
-    int extraBits = 0;
-    /** The individual byte message that is currently being added on to. */
-    String byteMessage = "";
+    /** The code table that stores the new binary representation of each byte. */
+    CodeTable table;
+    /** The string that describes the representations in the second line of the file. */
+    String convertedString;
     
-    //Getting the input from the original file
-    try {
+    //A saved table is only named in the header, since the decoder loads the same table
+    if (tableId != null) {
+      table = store.load(tableId);
+      convertedString = MzipHeader.TABLE_MARK + tableId;
       
-      /** Initializing the class used to take in the input, specifically in byte form */
-      in = new FileInputStream(name);
-      /** The current byte from the file. */
-      int c;
-      
-      //Reading the individual bytes
-      while ((c = in.read()) != -1) {
-        /** The current byte read from the file. */
-        byte ch = (byte)c;
-        /** The new binary representation of that specific byte. */
-        String str = encodedBytes.get(ch);
+    //A length limit skips the binary tree and finds the lengths directly, so the representations must be canonical
+    } else if (maxBits > 0) {
+      table = HuffmanEncoder.buildTable(frequency, maxBits);
+      metrics.endPhase(EncodeMetrics.BUILD);
+      convertedString = "#" + table.lengthsToString();
+      
+    } else {
+      /** The binary tree used to find the new representation of every byte in the file. */
+      BinaryTree tree = HuffmanEncoder.buildTree(frequency);
+      metrics.endPhase(EncodeMetrics.BUILD);
+      table = CodeTable.fromTree(tree);
+      
+      //Canonical representations only depend on their lengths, so only the lengths need to be written after a '#'
+      if (canonical) {
+        table = CodeTable.fromLengths(table.getLengths());
+        convertedString = "#" + table.lengthsToString();
         
-        //Add the new representation of the original byte if it does not make the current byte message's length larger than 8
-        if (byteMessage.length() + str.length() <= 8) {
-          byteMessage += str;
-          
-        //If you cannot simply add the new representation without overflowing, you must carry on remainder of the new representation
-        //to the next byte message
-        } else {
-          /** The length of the byte message currently. */
-          int length = byteMessage.length();
-          //Add what you can from the new representation to the current byte message without going over 8 bits
-          byteMessage += str.substring(0,8-length);
-          
-          //Convert the byte message from string to an actual byte stored in the byte array, encoded message
-          convertStringToByte(encodedMessage,byteMessage,index);
-          //Increment the index of the encoded message to progress to the next byte slot
-          index++;
-          
-          //Create another byte message with the remaining end of the new representation
-          byteMessage = str.substring(8-length);
-          
-          //Constantly loop until the byte message's length is less than 8 bits
-          while (byteMessage.length() >= 8) {
-            
-            /** A temporary string used to hold the first 8 bits of the byte message. */
-            String tempMessage = byteMessage.substring(0,8);
-            
-            //Convert the byte message from string to an actual byte stored in the byte array, encoded message
-            convertStringToByte(encodedMessage,tempMessage,index);
-            //Increment the index of the encoded message to progress to the next byte slot
-            index++;
-            
-            //Create another byte message exlcuding the first 8 bits used to make the previous byte
-            byteMessage = byteMessage.substring(8);
-          }
-        }
+      //Otherwise traverse the binary tree to get the string equivalent of the tree with brackets around nodes
+      } else {
+        convertedString = tree.convertToString();
       }
-    } finally {
-      //If the byte message still has bits inside of it, there are extra bits that need to be considered
-      if (byteMessage.length() > 0) {
-        
-        //The number of extra bits is equal to the number of bits in the byte message subtracted from 8, the maximum bits allowed in a byte
-        extraBits = 8 - byteMessage.length();
-        
-        //Place zeros at the end to fill up the extra bits
-        for (int i = 0; i < extraBits; i++) {
-          byteMessage += "0";
-        }
-        
-        //Convert the byte message from string to an actual byte stored in the byte array, encoded message
-        convertStringToByte(encodedMessage,byteMessage,index);
+    }
+    
+    metrics.endPhase(EncodeMetrics.ASSIGN);
+    
+    //A file split into blocks has its blocks encoded by several threads at once and written as they finish
+    if (blockSize > 0) {
+      //The blocks are read as a stream, so the windows are only used for the frequencies
+      if (source != null) {
+        source.close();
       }
+      /** The file input stream class used to get input in the form of bytes. */
+      FileInputStream in = new FileInputStream(name);
+      /** The buffered stream used to output bytes to a file. */
+      OutputStream out = new BufferedOutputStream(new FileOutputStream(fileName), FrequencyCounter.BUFFER_SIZE);
       
-      //Closing the input class when doing reading input
-      if (in != null) {
+      /** The header, which is written again once the checksum is known. */
+      MzipHeader header = new MzipHeader(originalName, convertedString, 0, blockSize);
+      /** The stream that finds the checksum of every byte written after the header. */
+      CheckedOutputStream checked = new CheckedOutputStream(out, new CRC32C());
+      header.setOriginalLength(new File(name).length());
+      header.setInterleaved(interleave);
+      
+      try {
+        header.write(out);
+        new BlockEncoder(table, blockSize, threads, header.getStreamCount()).encode(in, checked);
+        metrics.endPhase(EncodeMetrics.PACK);
+      } finally {
+        //Closing the input and output classes
         in.close();
+        out.close();
+      }
+      header.setChecksum((int)checked.getChecksum().getValue());
+      header.rewrite(fileName);
+      
+      //Every block is filled up to a whole byte and the block index follows them, so the size is only checked once they are written
+      if (!saves(new File(fileName).length(), new File(name).length(), minSavings)) {
+        writeStored(name, fileName, originalName, null);
+        metrics.endPhase(EncodeMetrics.WRITE);
+        report(metrics, stats, printMetrics, name, fileName, new File(name).length() * 8);
+        return;
       }
+      metrics.endPhase(EncodeMetrics.WRITE);
+      report(metrics, stats, printMetrics, name, fileName, (new File(fileName).length() - header.getLength()) * 8);
+      return;
     }
     
-    //Output the number of extra bits into the file, converted into byte form
-    out.write(extraBits+'0');
+    /** The number of bits in the final encoded message, which is known before encoding from the frequencies, or -1 if it is not. */
+    long numberOfBits = frequency != null ? table.encodedBits(frequency) : -1;
+    /** The number of extra bits at the end of the encoded message, which is written as 0 until it is known. */
+    int extraBits = numberOfBits >= 0 ? (int)((8 - numberOfBits % 8) % 8) : 0;
     
-    //Carriage return
-    out.write(13);
-    //Moving to next line
-    out.write(10);
+    //The exact size of the encoded file, header included, is known now, so check again before the second pass
+    if (numberOfBits >= 0
+          && !saves(new MzipHeader(originalName, convertedString, extraBits).getLength() + (numberOfBits + 7) / 8, frequency, minSavings)) {
+      writeStored(name, fileName, originalName, source);
+      metrics.endPhase(EncodeMetrics.WRITE);
+      report(metrics, stats, printMetrics, name, fileName, new File(name).length() * 8);
+      return;
+    }
+    /** The file input stream class used to get input in the form of bytes. */
+    FileInputStream in = null;
+    /** The file output stream that the buffered stream writes to. */
+    FileOutputStream file = null;
+    /** The buffered stream used to output bytes to a file. */
+    OutputStream out = null;
+    /** The stream that hands the encoded message to the writer thread with the -pipeline option, otherwise null. */
+    AsyncWriter writer = null;
+    /** The number of bits that were packed. */
+    long packedBits;
     
-    //Output the byte array that holds the encoded message
-    out.write(encodedMessage);
+    //Getting the input from the original file and writing the encoded message as it is packed
+    try {
+      
+      file = new FileOutputStream(fileName);
+      out = new BufferedOutputStream(file, FrequencyCounter.BUFFER_SIZE);
+      
+      /** The header with the filename, the converted string that represents the binary tree and the number of extra bits. */
+      MzipHeader header = new MzipHeader(originalName, convertedString, extraBits);
+      header.setOriginalLength(new File(name).length());
+      header.setSeekIndex(seekInterval > 0);
+      header.write(out);
+      //The header goes out first, so that the writer thread carries on from where it ends
+      if (pipeline) {
+        out.flush();
+        writer = new AsyncWriter(file.getChannel(), AsyncWriter.DEFAULT_BUFFER_SIZE, AsyncWriter.DEFAULT_DEPTH);
+      }
+      /** The stream that finds the checksum of every byte written after the header. */
+      CheckedOutputStream checked = new CheckedOutputStream(writer != null ? writer : out, new CRC32C());
+      
+      /** The encoder that packs every representation into a fixed-size buffer that is written to the file when full. */
+      HuffmanEncoder encoder = new HuffmanEncoder(table);
+      if (seekInterval > 0) {
+        encoder.setSeekInterval(seekInterval);
+      }
+      metrics.endPhase(EncodeMetrics.WRITE);
+      
+      //A mapped file is packed straight from memory, and a file read ahead is packed as its reads finish, one window at a time
+      if (source != null) {
+        packedBits = encoder.encode(source, checked);
+      } else {
+        /** Initializing the class used to take in the input, specifically in byte form */
+        in = new FileInputStream(name);
+        packedBits = encoder.encode(in, checked);
+      }
+      metrics.endPhase(EncodeMetrics.PACK);
+      
+      //The header was written from the first pass, so the file must not have changed since
+      if (numberOfBits >= 0 && packedBits != numberOfBits) {
+        throw new IOException("The file changed while it was being encoded");
+      }
+      if (seekInterval > 0) {
+        encoder.getSeekIndex().write(checked);
+      }
+      
+      //The header is written again with the checksum, and without a first pass, with the number of extra bits that is only known now
+      header.setExtraBits((int)((8 - packedBits % 8) % 8));
+      header.setChecksum((int)checked.getChecksum().getValue());
+      //Every byte must be written before the header at the start is written over
+      if (writer != null) {
+        writer.close();
+      }
+      out.flush();
+      header.rewrite(file.getChannel());
+    } finally {
+      //Closing the input and output classes
+      if (in != null) {
+        in.close();
+      }
+      if (source != null) {
+        source.close();
+      }
+      if (writer != null) {
+        writer.close();
+      }
+      if (out != null) {
+        out.close();
+      }
+    }
+    metrics.endPhase(EncodeMetrics.WRITE);
+    report(metrics, stats, printMetrics, name, fileName, packedBits);
+  }
+  
+  /**
+   * This method checks whether encoding a file saves enough space to be worth it
+   * @param encodedBytes  the size that the file would be encoded into
+   * @param frequency       the frequency of every byte in the file
+   * @param minSavings      the smallest saving worth encoding for, as a percentage of the original size
+   * @return                       true if the file should be encoded, false if it should be stored
+   */
+  
+  static boolean saves(double encodedBytes, long[] frequency, double minSavings) {
+    /** The number of bytes in the file. */
+    long size = 0;
+    for (int x = 0; x < frequency.length; x++) {
+      size += frequency[x];
+    }
+    return saves(encodedBytes, size, minSavings);
+  }
+  
+  /**
+   * This method checks whether encoding a file of a known size saves enough space to be worth it
+   * @param encodedBytes  the size that the file would be, or was, encoded into
+   * @param size               the number of bytes in the original file
+   * @param minSavings      the smallest saving worth encoding for, as a percentage of the original size
+   * @return                       true if the file should be encoded, false if it should be stored
+   */
+  
+  static boolean saves(double encodedBytes, long size, double minSavings) {
+    return size > 0 && encodedBytes <= size * (1 - minSavings / 100);
+  }
+  
+  /**
+   * This method writes a file's original bytes after a header that marks them as stored
+   * @param name              the name of the original file
+   * @param fileName         the name of the .MZIP file
+   * @param originalName  the name of the original file with the extension in all caps
+   * @param source          the file read one window at a time, which is closed, or null if it was read as a stream
+   * @throws IOException if the file cannot be copied
+   */
+  
+  static void writeStored(String name, String fileName, String originalName, WindowSource source) throws IOException {
+    if (source != null) {
+      source.close();
+    }
+    /** The header, which is written again once the checksum is known. */
+    MzipHeader header = new MzipHeader(originalName, MzipHeader.STORED, 0);
+    header.setOriginalLength(new File(name).length());
     
-    //Closing the output class
-    out.close();
+    /** The stream that the original bytes are read from. */
+    FileInputStream in = new FileInputStream(name);
+    /** The stream that the .MZIP file is written to. */
+    FileOutputStream out = new FileOutputStream(fileName);
+    /** The stream that finds the checksum of the original bytes as they are copied. */
+    CheckedOutputStream checked = new CheckedOutputStream(out, new CRC32C());
+    try {
+      header.write(out);
+      /** The chunk of the file being copied. */
+      byte[] buffer = new byte[FrequencyCounter.BUFFER_SIZE];
+      /** The number of bytes read into the chunk. */
+      int count;
+      while ((count = in.read(buffer)) != -1) {
+        checked.write(buffer, 0, count);
+      }
+      header.setChecksum((int)checked.getChecksum().getValue());
+      header.rewrite(out.getChannel());
+    } finally {
+      //Closing the input and output classes
+      in.close();
+      out.close();
+    }
+  }
+  
+  /**
+   * This method records the sizes of a file that was just encoded and passes its metrics on
+   * @param metrics        the metrics recorded while the file was encoded
+   * @param stats            the totals of the run, or null if nobody is watching them
+   * @param print            whether the metrics are printed to the error stream
+   * @param name            the name of the original file
+   * @param fileName       the name of the .MZIP file
+   * @param encodedBits  the number of bits in the encoded message, not counting the header
+   */
+  
+  static void report(EncodeMetrics metrics, EncodeStats stats, boolean print, String name, String fileName, long encodedBits) {
+    metrics.setSizes(new File(name).length(), new File(fileName).length(), encodedBits);
+    if (stats != null) {
+      stats.encodeFinished(name, metrics);
+    }
+    if (print) {
+      System.err.print(metrics);
+    }
   }
   
   /**
-   * This method converts a string in binary form to a byte and stores it in a byte array
-   * @param encodedMessage  the byte array used to hold the new byte that has been created
-   * @param message                the binary string that needs to be converted
-   * @param index                     the current index of the byte array that should store the new byte value
+   * This method finds the name of the .MZIP file that a file is encoded into
+   * @param name  the name of the original file
+   * @return           the same name with the extension replaced by .MZIP
    */
   
-  public static void convertStringToByte(byte[] encodedMessage, String message, int index) {
-    for (int i = 7; i >= 0; i--) {
-      //If the specified character at that index is a 1, add two to the power of that index to the byte
-      if (message.charAt(7-i) == '1') {
-        encodedMessage[index] += 1 << i;
+  static String encodedName(String name) {
+    //A name without an extension only has .MZIP added to it
+    if (name.indexOf(".") < 0) {
+      return name + ".MZIP";
+    }
+    /** The number of letters of the file's extension. */
+    int lengthOfExtension = name.length() - name.indexOf(".") - 1;
+    return name.substring(0,name.length()-lengthOfExtension-1) + ".MZIP";
+  }
+  
+  /**
+   * This method finds the name of the original file that is written in the first line of the header
+   * @param name  the name of the original file
+   * @return           the same name with the letters of the extension in all caps
+   */
+  
+  static String headerName(String name) {
+    if (name.indexOf(".") < 0) {
+      return name;
+    }
+    /** The number of letters of the file's extension. */
+    int lengthOfExtension = name.length() - name.indexOf(".") - 1;
+    /** The name of the original file with the extension in all caps. */
+    String originalName = "";
+    
+    //Find the filename of the original file with the extension in all caps
+    for (int i = 0; i < name.length(); i++) {
+      
+      //Keep the original file name excluding the extension as is
+      if (i < name.length()-lengthOfExtension) {
+        originalName += name.charAt(i); 
+      } else {
+        //Only lower case letters are changed, so dots, digits and every other character of the extension are kept as they are
+        if (name.charAt(i) >= 'a' && name.charAt(i) <= 'z') {
+          originalName += (char)(name.charAt(i)-32); 
+        } else {
+          originalName += name.charAt(i); 
+        }
       }
     }
+    return originalName;
   }
 }
\ No newline at end of file
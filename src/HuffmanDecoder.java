@@ -0,0 +1,296 @@
+/* -------- IMPORTS ---------- */
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+/* -------------------------- */
+
+/**
+ * [HuffmanDecoder.java]
+ * The program holds the decoder class that turns an encoded message back into the original bytes.
+ * The representations are placed in a binary tree stored in an array, and a lookup table is made from the tree
+ * that gives the byte and the length of the representation for every possible group of the next LOOKUP_BITS bits.
+ * Most bytes are decoded with a single look into the table, and only longer representations continue down the tree bit by bit.
+ * A block split into interleaved streams is decoded with one bit reader per stream, taking a byte from every stream in turn.
+ * @author Braydon Wang
+ * @version 1.1, Oct 18, 2026
+ */
+
+class HuffmanDecoder {
+
+  /** The number of bits looked at in every look into the table. */
+  static final int LOOKUP_BITS = 11;
+  /** The number of bytes decoded before they are written to the output stream. */
+  static final int BUFFER_SIZE = 1 << 16;
+
+  /**
+   * The children of every node in the tree, where the left child of node n is at 2n and the right child at 2n+1.
+   * A positive value is the index of another node, a negative value -(x+1) is a leaf holding byte x, and 0 is a missing child.
+   */
+  private int[] children;
+  /**
+   * The entry of the lookup table for every group of LOOKUP_BITS bits.
+   * A positive entry holds the byte shifted left by 8 bits and the length of its representation in the lowest 8 bits,
+   * a negative entry -(n+1) means the representation is longer and continues at node n after LOOKUP_BITS bits,
+   * and 0 means no representation starts with those bits.
+   */
+  private int[] lookup;
+  /** The buffer that decoded bytes are collected in before they are written. */
+  private byte[] buffer;
+
+  /**
+   * Creates an object from the decoder class.
+   * @param table  the code table holding every byte's representation
+   */
+
+  HuffmanDecoder(CodeTable table) {
+    buildTree(table);
+    buildLookup();
+  }
+
+  /**
+   * This method decodes an encoded message and writes the original bytes
+   * @param in                  the bit reader that the encoded message is read from
+   * @param numberOfBits  the number of bits in the encoded message, not counting the extra bits
+   * @param out               the stream that the original bytes are written to
+   * @throws IOException if the message cannot be read, does not match the representations, or cannot be written
+   */
+
+  public void decode(BitReader in, long numberOfBits, OutputStream out) throws IOException {
+    /** The number of bits left to decode. */
+    long bitsLeft = numberOfBits;
+    /** The number of decoded bytes waiting in the buffer. */
+    int count = 0;
+
+    //The buffer is only made when it is first needed, since a decoder used one byte at a time never needs it
+    if (buffer == null) {
+      buffer = new byte[BUFFER_SIZE];
+    }
+
+    while (bitsLeft > 0) {
+      /** The byte that was decoded and the length of its representation. */
+      int symbol = decodeSymbol(in, bitsLeft);
+      bitsLeft -= symbol & 0xFF;
+
+      buffer[count++] = (byte)(symbol >>> 8);
+      if (count == buffer.length) {
+        out.write(buffer, 0, count);
+        count = 0;
+      }
+    }
+    out.write(buffer, 0, count);
+  }
+
+  /**
+   * This method decodes an encoded message held in a buffer into another buffer.
+   * The input buffer's position moves past the encoded message, and may read up to 8 bytes ahead of where it ends,
+   * while the output buffer's position moves past the decoded bytes.
+   * @param in                  the buffer holding the encoded message
+   * @param numberOfBits  the number of bits in the encoded message, not counting the extra bits
+   * @param out               the buffer that the original bytes are written to
+   * @throws IOException if the message does not match the representations
+   * @throws java.nio.BufferOverflowException if the original bytes do not fit in the output buffer
+   */
+
+  public void decode(ByteBuffer in, long numberOfBits, ByteBuffer out) throws IOException {
+    /** The bit reader that takes bytes straight from the input buffer. */
+    BitReader reader = new BitReader(in);
+    /** The number of bits left to decode. */
+    long bitsLeft = numberOfBits;
+
+    while (bitsLeft > 0) {
+      /** The byte that was decoded and the length of its representation. */
+      int symbol = decodeSymbol(reader, bitsLeft);
+      bitsLeft -= symbol & 0xFF;
+      out.put((byte)(symbol >>> 8));
+    }
+  }
+
+  /**
+   * This method decodes a block whose bytes were dealt out in turn to several streams, so that byte i of the block is in stream i % in.length.
+   * With four streams, a byte is decoded from each of them in every pass of the loop, and since every stream has its own bit reader,
+   * the four lookups do not wait for each other and the processor can work on them at the same time.
+   * @param in                  the bit reader of every stream
+   * @param numberOfBits  the number of bits in every stream, not counting the extra bits
+   * @param out               the array that the original bytes are written to from the start
+   * @return                     the number of original bytes decoded
+   * @throws IOException if a stream does not match the representations, or the block does not fit in the array
+   */
+
+  public int decodeInterleaved(BitReader[] in, long[] numberOfBits, byte[] out) throws IOException {
+    /** The number of bits left to decode in every stream. */
+    long[] bitsLeft = numberOfBits.clone();
+    /** The index of the next original byte. */
+    int count = 0;
+
+    //As long as every stream has bits left, a whole round of four bytes is decoded at once
+    if (in.length == 4) {
+      /** The bit reader of the first stream. */
+      BitReader r0 = in[0];
+      /** The bit reader of the second stream. */
+      BitReader r1 = in[1];
+      /** The bit reader of the third stream. */
+      BitReader r2 = in[2];
+      /** The bit reader of the fourth stream. */
+      BitReader r3 = in[3];
+      while (bitsLeft[0] > 0 && bitsLeft[1] > 0 && bitsLeft[2] > 0 && bitsLeft[3] > 0 && count + 4 <= out.length) {
+        /** The byte decoded from the first stream and the length of its representation. */
+        int s0 = decodeSymbol(r0, bitsLeft[0]);
+        /** The byte decoded from the second stream and the length of its representation. */
+        int s1 = decodeSymbol(r1, bitsLeft[1]);
+        /** The byte decoded from the third stream and the length of its representation. */
+        int s2 = decodeSymbol(r2, bitsLeft[2]);
+        /** The byte decoded from the fourth stream and the length of its representation. */
+        int s3 = decodeSymbol(r3, bitsLeft[3]);
+        bitsLeft[0] -= s0 & 0xFF;
+        bitsLeft[1] -= s1 & 0xFF;
+        bitsLeft[2] -= s2 & 0xFF;
+        bitsLeft[3] -= s3 & 0xFF;
+        out[count] = (byte)(s0 >>> 8);
+        out[count + 1] = (byte)(s1 >>> 8);
+        out[count + 2] = (byte)(s2 >>> 8);
+        out[count + 3] = (byte)(s3 >>> 8);
+        count += 4;
+      }
+    }
+
+    //The last round takes one byte from every stream in turn until a stream runs out, and then every stream must have run out
+    for (int s = count % in.length; bitsLeft[s] > 0; s = (s + 1) % in.length) {
+      if (count == out.length) {
+        throw new IOException("The block decodes to more bytes than the block size");
+      }
+      /** The byte that was decoded and the length of its representation. */
+      int symbol = decodeSymbol(in[s], bitsLeft[s]);
+      bitsLeft[s] -= symbol & 0xFF;
+      out[count++] = (byte)(symbol >>> 8);
+    }
+    for (long bits: bitsLeft) {
+      if (bits != 0) {
+        throw new IOException("The streams of the block do not end together");
+      }
+    }
+    return count;
+  }
+
+  /**
+   * This method decodes the next byte, which the ContextDecoder class also uses to decode one byte at a time
+   * @param in            the bit reader that the encoded message is read from
+   * @param bitsLeft    the number of bits left in the encoded message
+   * @return               the byte shifted left by 8 bits, with the length of its representation in the lowest 8 bits
+   * @throws IOException if the message cannot be read or does not match the representations
+   */
+
+  int decodeSymbol(BitReader in, long bitsLeft) throws IOException {
+    /** The entry of the lookup table for the next bits. */
+    int entry = lookup[in.peek(LOOKUP_BITS)];
+    /** The byte that was decoded. */
+    int x;
+    /** The length of the byte's representation. */
+    int length;
+
+    //Most representations are short enough to be found with the table alone
+    if (entry > 0) {
+      x = entry >>> 8;
+      length = entry & 0xFF;
+      in.skip(length);
+
+    //Longer representations continue down the tree one bit at a time from where the table stopped
+    } else if (entry < 0) {
+      /** The current node in the tree. */
+      int node = -entry - 1;
+      in.skip(LOOKUP_BITS);
+      length = LOOKUP_BITS;
+      while (node > 0) {
+        node = children[2 * node + in.read(1)];
+        length++;
+      }
+      if (node == 0) {
+        throw new IOException("The encoded message does not match the representations");
+      }
+      x = -node - 1;
+
+    } else {
+      throw new IOException("The encoded message does not match the representations");
+    }
+
+    //A representation that runs into the extra bits means the message is incomplete
+    if (length > bitsLeft) {
+      throw new IOException("The encoded message ends in the middle of a representation");
+    }
+    return (x << 8) | length;
+  }
+
+  /**
+   * This method places every representation in the tree
+   * @param table  the code table holding every byte's representation
+   */
+
+  private void buildTree(CodeTable table) {
+    /** The bits of every byte's representation. */
+    long[] codes = table.getCodes();
+    /** The number of bits of every byte's representation. */
+    int[] lengths = table.getLengths();
+    /** The number of nodes in the tree, starting with the root. */
+    int nodes = 1;
+
+    //A tree with n leaves has fewer than n other nodes, so this always has enough room
+    children = new int[2 * (lengths.length + 1)];
+
+    for (int x = 0; x < lengths.length; x++) {
+      if (lengths[x] == 0) {
+        continue;
+      }
+      /** The current node, starting at the root. */
+      int node = 0;
+      for (int i = lengths[x] - 1; i >= 0; i--) {
+        /** The index of the child that the next bit leads to. */
+        int child = 2 * node + (int)((codes[x] >>> i) & 1);
+        if (children[child] < 0 || (i == 0 && children[child] != 0)) {
+          throw new IllegalArgumentException("The representations are not prefix-free");
+        }
+        if (i == 0) {
+          children[child] = -x - 1;
+        } else {
+          if (children[child] == 0) {
+            //Grow the array if a malformed table has more nodes than expected
+            if (2 * nodes + 1 >= children.length) {
+              children = Arrays.copyOf(children, children.length * 2);
+            }
+            children[child] = nodes++;
+          }
+          node = children[child];
+        }
+      }
+    }
+  }
+
+  /**
+   * This method fills the lookup table by following every group of LOOKUP_BITS bits down the tree
+   */
+
+  private void buildLookup() {
+    lookup = new int[1 << LOOKUP_BITS];
+
+    for (int bits = 0; bits < lookup.length; bits++) {
+      /** The current node, starting at the root. */
+      int node = 0;
+      /** The number of bits followed so far. */
+      int length = 0;
+
+      while (length < LOOKUP_BITS && node >= 0) {
+        node = children[2 * node + ((bits >>> (LOOKUP_BITS - 1 - length)) & 1)];
+        length++;
+        //A missing child means no representation starts with these bits
+        if (node == 0) {
+          break;
+        }
+      }
+
+      if (node < 0) {
+        lookup[bits] = ((-node - 1) << 8) | length;
+      } else if (node > 0) {
+        lookup[bits] = -node - 1;
+      }
+    }
+  }
+}
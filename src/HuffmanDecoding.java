@@ -0,0 +1,332 @@
+/* -------- IMPORTS ---------- */
+import java.util.Scanner;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.util.zip.CheckedInputStream;
+/* -------------------------- */
+
+/**
+ * [HuffmanDecoding.java]
+ * The program allows the user to decode a .MZIP file made by the HuffmanCoding program back into the original file.
+ * The header is read to rebuild every byte's representation, from either the binary tree or the lengths of the canonical representations.
+ * The encoded message is then decoded with a lookup table that finds most bytes from several bits at once.
+ * A file that was split into blocks has its blocks decoded by several threads at once.
+ * The original file is written under the name stored in the header, unless another name is given.
+ * Only the last part of the stored name is used, in the working directory, so a file cannot choose where its original bytes are written.
+ * A file encoded adaptively is decoded one block at a time as it is read, so it can also be read from the standard input with a name of "-",
+ * and an output name of "-" writes the original bytes to the standard output.
+ * A file encoded with order-1 contexts switches to the representations of the previous byte's context for every byte.
+ * A stored file has its original bytes copied out as they are.
+ * A file encoded two bytes at a time decodes every symbol into a pair of bytes.
+ * A file encoded with a stored code table needs that table, which is read from the tables directory (set with -tables).
+ * With the -range option, only the given number of original bytes from the given position are written, using the MzipReader class,
+ * which decodes as little of the file as its seek index or blocks allow.
+ * The checksum of the encoded message is compared with the one in the header, so a damaged file is reported instead of decoded silently.
+ * A .MZIP file that is not read from the standard input is checked before the original file is even opened, so a damaged file writes nothing,
+ * and an original file that was written before an error was found is deleted.
+ * The number of bytes decoded is compared with the original length in the header too, since a file cut short can still have a matching checksum.
+ * @author Braydon Wang
+ * @version 1.1, Oct 18, 2026
+ */
+
+class HuffmanDecoding {
+  public static void main(String[] args) throws Exception{
+
+    /** The name of the .MZIP file. */
+    String name = null;
+    /** The name of the file that the original bytes are written to, or null to use the name in the header. */
+    String outputName = null;
+    /** The directory that stored code tables are read from. */
+    String tablesDirectory = CodeTableStore.DEFAULT_DIRECTORY;
+    /** The position of the first original byte to write, or -1 to write the whole file. */
+    long rangeStart = -1;
+    /** The number of original bytes to write when only a range is written. */
+    long rangeLength = 0;
+
+    //The names can be given on the command line, otherwise the user is asked for the .MZIP file
+    for (int i = 0; i < args.length; i++) {
+      /** The current argument. */
+      String arg = args[i];
+      if (arg.equals("-tables")) {
+        tablesDirectory = args[++i];
+      } else if (arg.equals("-range")) {
+        rangeStart = Long.parseLong(args[++i]);
+        rangeLength = Long.parseLong(args[++i]);
+      } else if (arg.startsWith("-") && arg.length() > 1) {
+        throw new IllegalArgumentException("Unknown option: " + arg);
+      } else if (name == null) {
+        name = arg;
+      } else {
+        outputName = arg;
+      }
+    }
+    if (name == null) {
+      /** The scanner class used for input from the console. */
+      Scanner sc = new Scanner(System.in);
+
+      //Getting the name of the file that the user specifies
+      System.out.println("Enter the name of the file that you want to decode: ");
+      name = sc.next();
+    }
+
+    //A range is read from the middle of the file, so the checksum of the whole message is not checked
+    if (rangeStart >= 0) {
+      writeRange(name, outputName, new CodeTableStore(tablesDirectory), rangeStart, rangeLength);
+      return;
+    }
+
+    /** The buffered stream used to read the .MZIP file. */
+    InputStream in = null;
+    /** The stream used to write the original bytes. */
+    OutputStream out = null;
+    /** Whether every original byte was written and checked. */
+    boolean complete = false;
+
+    try {
+      in = new BufferedInputStream(name.equals("-") ? System.in : new FileInputStream(name), BitReader.BUFFER_SIZE);
+
+      /** The header at the start of the file. */
+      MzipHeader header = MzipHeader.read(in);
+
+      if (outputName == null) {
+        outputName = localName(header.getName());
+      }
+
+      //A file can be read twice, so its checksum is checked before anything is written, and it is then read again from the start
+      if (!name.equals("-") && header.hasChecksum()) {
+        verify(header, new CheckedInputStream(in, new CRC32C()));
+        in.close();
+        in = new BufferedInputStream(new FileInputStream(name), BitReader.BUFFER_SIZE);
+        MzipHeader.read(in);
+      }
+      out = outputName.equals("-") ? System.out : new FileOutputStream(outputName);
+      /** The stream that counts the original bytes as they are written. */
+      CountingOutput counted = new CountingOutput(out);
+
+      /** The stream that finds the checksum of every byte read after the header. */
+      CheckedInputStream payload = new CheckedInputStream(in, new CRC32C());
+
+      //An adaptive file learns its representations block by block, so it does not need the length of the file
+      if (header.isAdaptive()) {
+        new AdaptiveDecoder(header.getBlockSize()).decode(payload, counted);
+        verify(header, payload);
+        checkLength(header, counted.getCount());
+        complete = true;
+        return;
+      }
+      if (name.equals("-")) {
+        throw new IOException("Only adaptive files can be decoded from the standard input");
+      }
+
+      /** The number of bits in the encoded message, which is everything after the header except the extra bits and the seek index. */
+      long numberOfBits = MzipReader.payloadLength(name, header) * 8 - header.getExtraBits();
+      /** The code table of every pair of bytes if the file was encoded two bytes at a time, otherwise null. */
+      CodeTable pairs = header.createPairTable();
+      /** The code table of every context if the file was encoded with order-1 contexts, otherwise null. */
+      ContextTable contexts = header.createContextTable();
+
+      //A stored file is copied as it is
+      if (header.isStored()) {
+        /** The chunk of the file being copied. */
+        byte[] buffer = new byte[BitReader.BUFFER_SIZE];
+        /** The number of bytes read into the chunk. */
+        int count;
+        while ((count = payload.read(buffer)) != -1) {
+          counted.write(buffer, 0, count);
+        }
+      } else if (pairs != null) {
+        new PairDecoder(pairs, header.hasOddByte()).decode(new BitReader(payload), numberOfBits, counted);
+      } else if (contexts != null) {
+        new ContextDecoder(contexts).decode(new BitReader(payload), numberOfBits, counted);
+
+      //A file split into blocks has its blocks decoded by several threads at once
+      } else if (header.getBlockSize() > 0) {
+        /** The code table holding every byte's representation. */
+        CodeTable table = header.createCodeTable(new CodeTableStore(tablesDirectory));
+        /** The file opened for reading from any position. */
+        RandomAccessFile file = new RandomAccessFile(name, "r");
+        try {
+          new BlockDecoder(file, header, table).decodeAll(counted, Runtime.getRuntime().availableProcessors());
+        } finally {
+          file.close();
+        }
+
+      //Otherwise decode the message with the representations described in the header
+      } else {
+        new HuffmanDecoder(header.createCodeTable(new CodeTableStore(tablesDirectory))).decode(new BitReader(payload), numberOfBits, counted);
+      }
+      verify(header, payload);
+      checkLength(header, counted.getCount());
+      complete = true;
+    } finally {
+      //Closing the input and output classes
+      if (in != null) {
+        in.close();
+      }
+      if (out != null) {
+        out.close();
+      }
+      //Whatever was written before an error is not the original file, so it is not left behind
+      if (!complete && out != null && out != System.out) {
+        new File(outputName).delete();
+      }
+    }
+  }
+
+  /**
+   * This method writes a range of the original bytes of a .MZIP file
+   * @param name          the name of the .MZIP file
+   * @param outputName  the name of the file that the bytes are written to, "-" for the standard output, or null to use the name in the header
+   * @param store           the store that named code tables are loaded from
+   * @param start           the position of the first original byte to write
+   * @param length         the number of original bytes to write
+   * @throws IOException if the file cannot be read from the middle or the bytes cannot be written
+   */
+
+  static void writeRange(String name, String outputName, CodeTableStore store, long start, long length) throws IOException {
+    /** The reader that decodes the range. */
+    MzipReader reader = new MzipReader(name, store);
+    /** The stream used to write the original bytes. */
+    OutputStream out = null;
+    try {
+      if (outputName == null) {
+        outputName = localName(reader.getHeader().getName());
+      }
+      out = outputName.equals("-") ? System.out : new FileOutputStream(outputName);
+      /** The chunk of the range being written. */
+      byte[] buffer = new byte[BitReader.BUFFER_SIZE];
+      /** The number of bytes read into the chunk. */
+      int count;
+      while (length > 0 && (count = reader.read(start, buffer, 0, (int)Math.min(buffer.length, length))) != -1) {
+        out.write(buffer, 0, count);
+        start += count;
+        length -= count;
+      }
+    } finally {
+      //Closing the reader and the output class
+      reader.close();
+      if (out != null) {
+        out.close();
+      }
+    }
+  }
+
+  /**
+   * This method finds the name that the original bytes are written to when no other name is given.
+   * The name in the header is whatever the encoder was given, which may have directories in it, so only its last part is kept
+   * and the file is written to the working directory, never to a path that the .MZIP file chooses.
+   * @param storedName  the name of the original file stored in the header
+   * @return                  the last part of the name
+   * @throws IOException if the name has no last part that can be written to, or has characters that are not allowed in a file name
+   */
+
+  static String localName(String storedName) throws IOException {
+    /** The last part of the stored name. */
+    String name = new File(storedName).getName();
+    if (name.isEmpty() || name.equals(".") || name.equals("..") || name.equals("-")) {
+      throw new IOException("The name in the header cannot be used, so an output name must be given after the .MZIP file");
+    }
+    //Control characters and characters that some systems do not allow in names could make a file that is hard to find or remove
+    for (int i = 0; i < name.length(); i++) {
+      /** The current character of the name. */
+      char c = name.charAt(i);
+      if (c < ' ' || c == 127 || "<>:\"/\\|?*".indexOf(c) >= 0) {
+        throw new IOException("The name in the header has characters that cannot be used in a file name, so an output name must be given after the .MZIP file");
+      }
+    }
+    return name;
+  }
+
+  /**
+   * This method reads what is left of the encoded message and checks that its checksum matches the one in the header
+   * @param header   the header at the start of the file
+   * @param payload  the stream that the encoded message was read through
+   * @throws IOException if the file cannot be read or the checksums do not match
+   */
+
+  static void verify(MzipHeader header, CheckedInputStream payload) throws IOException {
+    /** The chunk of the file being skipped. */
+    byte[] buffer = new byte[BitReader.BUFFER_SIZE];
+
+    //The decoders may stop before the end of the file, but every byte is part of the checksum
+    while (payload.read(buffer) != -1) {
+    }
+    if (header.hasChecksum() && (int)payload.getChecksum().getValue() != header.getChecksum()) {
+      throw new IOException("The checksum does not match, so the file is damaged");
+    }
+  }
+
+  /**
+   * This method checks that the number of bytes decoded is the length of the original file recorded in the header
+   * @param header   the header at the start of the file
+   * @param decoded  the number of original bytes that were written
+   * @throws IOException if the header has the original length and it is not the number of bytes decoded
+   */
+
+  static void checkLength(MzipHeader header, long decoded) throws IOException {
+    if (header.getOriginalLength() >= 0 && decoded != header.getOriginalLength()) {
+      throw new IOException("The file decoded into " + decoded + " bytes, but the original file had " + header.getOriginalLength()
+                              + " bytes, so the file is damaged");
+    }
+  }
+
+  /**
+   * [CountingOutput]
+   * The class is a stream that passes every byte on to another stream and counts how many were written.
+   */
+
+  static class CountingOutput extends FilterOutputStream {
+
+    /** The number of bytes written so far. */
+    private long count;
+
+    /**
+     * Creates an object from the counting output class.
+     * @param out  the stream that the bytes are passed on to
+     */
+
+    CountingOutput(OutputStream out) {
+      super(out);
+    }
+
+    /**
+     * This method writes a single byte and counts it
+     * @param b  the byte being written
+     * @throws IOException if the byte cannot be written
+     */
+
+    public void write(int b) throws IOException {
+      out.write(b);
+      count++;
+    }
+
+    /**
+     * This method writes a section of an array at once and counts its bytes
+     * @param b        the array holding the bytes
+     * @param off      the index of the first byte
+     * @param len      the number of bytes
+     * @throws IOException if the bytes cannot be written
+     */
+
+    public void write(byte[] b, int off, int len) throws IOException {
+      out.write(b, off, len);
+      count += len;
+    }
+
+    /**
+     * This method returns the number of bytes written so far
+     * @return the number of bytes
+     */
+
+    public long getCount() {
+      return count;
+    }
+  }
+}
@@ -0,0 +1,345 @@
+/* -------- IMPORTS ---------- */
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+/* -------------------------- */
+
+/**
+ * [HuffmanEncoder.java]
+ * The program holds the encoder class that lets other programs encode messages without going through files.
+ * An encoder is made from a code table and can be used for any number of messages, reusing the same buffers every time,
+ * and messages can be encoded from a buffer in memory into another buffer, or from one stream into another.
+ * Only the encoded message is written, so the program using the encoder keeps the code table to decode it later.
+ * An encoder can also keep a seek index of where every interval of original bytes starts in the encoded message.
+ * An encoder is not safe to use from several threads at once.
+ * @author Braydon Wang
+ * @version 1.1, Oct 18, 2026
+ */
+
+class HuffmanEncoder {
+
+  /** The code table holding every byte's representation. */
+  private CodeTable table;
+  /** The bit packer that is reused for every message. */
+  private BitPacker packer;
+  /** The buffer that is reused to hold chunks of a stream being encoded. */
+  private byte[] buffer;
+  /** The stream that is reused to write packed bytes into a buffer. */
+  private ByteBufferOutput bufferOutput;
+  /** The number of original bytes between checkpoints of the seek index, or 0 if no index is kept. */
+  private long seekInterval;
+  /** The bit offset of every checkpoint of the last message after the first. */
+  private long[] checkpoints;
+  /** The number of checkpoints of the last message after the first. */
+  private int checkpointCount;
+  /** The number of original bytes of the current message packed so far. */
+  private long position;
+
+  /**
+   * Creates an object from the encoder class.
+   * @param table  the code table holding every byte's representation
+   */
+
+  HuffmanEncoder(CodeTable table) {
+    this.table = table;
+    this.packer = new BitPacker((OutputStream)null, FrequencyCounter.BUFFER_SIZE);
+    this.buffer = new byte[FrequencyCounter.BUFFER_SIZE];
+    this.bufferOutput = new ByteBufferOutput();
+  }
+
+  /**
+   * This method returns the code table that the encoder uses
+   * @return the code table
+   */
+
+  public CodeTable getTable() {
+    return this.table;
+  }
+
+  /**
+   * This method changes the code table, so that the same encoder and its buffers can be used for a message with other representations
+   * @param table  the code table holding every byte's representation
+   */
+
+  public void setTable(CodeTable table) {
+    this.table = table;
+  }
+
+  /**
+   * This method makes the encoder keep a seek index for every message
+   * @param seekInterval  the number of original bytes between checkpoints, or 0 to keep no index
+   */
+
+  public void setSeekInterval(long seekInterval) {
+    this.seekInterval = seekInterval;
+    this.checkpoints = new long[16];
+  }
+
+  /**
+   * This method returns the seek index of the last message encoded
+   * @return the seek index, or null if the encoder keeps no index
+   */
+
+  public SeekIndex getSeekIndex() {
+    if (seekInterval == 0) {
+      return null;
+    }
+    return new SeekIndex(seekInterval, Arrays.copyOf(checkpoints, checkpointCount));
+  }
+
+  /**
+   * This method creates a code table of canonical representations for a message
+   * @param frequency  the frequency of every byte in the message
+   * @param maxBits     the longest representation allowed, or 0 if the length is not limited
+   * @return                 the code table, which can be rebuilt from its lengths alone
+   */
+
+  public static CodeTable buildTable(long[] frequency, int maxBits) {
+    if (maxBits > 0) {
+      return CodeTable.fromLengths(PackageMerge.findLengths(frequency, maxBits));
+    }
+    return CodeTable.fromLengths(CodeTable.fromTree(buildTree(frequency)).getLengths());
+  }
+
+  /**
+   * This method builds the binary tree by repeatedly joining the two nodes with the smallest frequencies
+   * @param frequency  the frequency of every byte, indexed by the unsigned value of the byte
+   * @return                 the binary tree whose leaves are the bytes that appear
+   */
+
+  public static BinaryTree buildTree(long[] frequency) {
+
+    /** A priority queue used to sort the frequency of every node in the binary tree. */
+    SimplePriorityQueue q = new SimplePriorityQueue(frequency.length);
+    /** The binary tree used to find the new representation of every byte in the file. */
+    BinaryTree tree = new BinaryTree(frequency.length);
+
+    //Place every byte and its corresponding frequencies in the queue as a leaf node of the binary tree
+    for (int x = 0; x < frequency.length; x++) {
+      //Only bytes that appear in the file become leaves
+      if (frequency[x] > 0) {
+        q.enqueue(tree.addLeaf(x, frequency[x]), frequency[x]);
+      }
+    }
+
+    //Loop through every node in the priority queue until there is only one left
+    while (q.size() > 1) {
+
+      /** The smallest frequency node in the queue. */
+      int node1 = q.dequeue(); //remove it from the queue
+      /** The second smallest frequency in the queue. */
+      int node2 = q.dequeue(); //remove it from the queue
+
+      //Create a new node that has node1 and node2 as its children with the sum of both of their frequencies
+      //Add this new node back into the priority queue
+      /** The node that joins the two smallest frequency nodes. */
+      int parent = tree.join(node1, node2);
+      q.enqueue(parent, tree.getWeight(parent));
+    }
+
+    //The last node in the queue is the root of the binary tree, or the tree is empty if nothing appeared
+    tree.setRoot(q.dequeue());
+
+    return tree;
+  }
+
+  /**
+   * This method encodes the remaining bytes of a buffer into another buffer.
+   * The input buffer's position moves to its limit, and the output buffer's position moves past the encoded message.
+   * @param in   the buffer holding the original bytes
+   * @param out  the buffer that the encoded message is written to
+   * @return        the number of bits in the encoded message, not counting the zeros that fill the last byte
+   * @throws java.nio.BufferOverflowException if the encoded message does not fit in the output buffer
+   */
+
+  public long encode(ByteBuffer in, ByteBuffer out) {
+    bufferOutput.setTarget(out);
+    try {
+      return encode(in, bufferOutput);
+    } catch (IOException e) {
+      //Writing into a buffer never fails with an IOException
+      throw new IllegalStateException(e);
+    } finally {
+      bufferOutput.setTarget(null);
+    }
+  }
+
+  /**
+   * This method encodes the remaining bytes of a buffer into a stream.
+   * The input buffer's position moves to its limit.
+   * @param in   the buffer holding the original bytes
+   * @param out  the stream that the encoded message is written to
+   * @return        the number of bits in the encoded message, not counting the zeros that fill the last byte
+   * @throws IOException if the encoded message cannot be written
+   */
+
+  public long encode(ByteBuffer in, OutputStream out) throws IOException {
+    start(out);
+    pack(in);
+    in.position(in.limit());
+    return finish();
+  }
+
+  /**
+   * This method encodes every byte of a stream into another stream
+   * @param in   the stream that the original bytes are read from
+   * @param out  the stream that the encoded message is written to
+   * @return        the number of bits in the encoded message, not counting the zeros that fill the last byte
+   * @throws IOException if the bytes cannot be read or the encoded message cannot be written
+   */
+
+  public long encode(InputStream in, OutputStream out) throws IOException {
+    /** The number of bytes read into the buffer. */
+    int count;
+
+    start(out);
+    while ((count = in.read(buffer)) != -1) {
+      pack(buffer, 0, count);
+    }
+    return finish();
+  }
+
+  /**
+   * This method encodes every byte of a file that is read one window at a time into a stream
+   * @param in   the file, such as a mapped file, which is read from the start
+   * @param out  the stream that the encoded message is written to
+   * @return        the number of bits in the encoded message, not counting the zeros that fill the last byte
+   * @throws IOException if the file cannot be read or the encoded message cannot be written
+   */
+
+  public long encode(WindowSource in, OutputStream out) throws IOException {
+    /** The current window of the file. */
+    ByteBuffer window;
+
+    start(out);
+    in.rewind();
+    while ((window = in.nextWindow()) != null) {
+      pack(window);
+    }
+    return finish();
+  }
+
+  /**
+   * This method gets the packer and the seek index ready for a new message
+   * @param out  the stream that the encoded message is written to
+   */
+
+  private void start(OutputStream out) {
+    packer.reset(out);
+    checkpointCount = 0;
+    position = 0;
+  }
+
+  /**
+   * This method packs a section of an array, stopping at every checkpoint of the seek index to note the bits packed so far
+   * @param data      the array holding the original bytes
+   * @param offset   the index of the first byte to pack
+   * @param length   the number of bytes to pack
+   * @throws IOException if the encoded message cannot be written
+   */
+
+  private void pack(byte[] data, int offset, int length) throws IOException {
+    if (seekInterval == 0) {
+      packer.pack(data, offset, length, table);
+      return;
+    }
+    while (length > 0) {
+      /** The number of bytes that can be packed before the next checkpoint. */
+      int part = (int)Math.min(length, seekInterval - position % seekInterval);
+      packer.pack(data, offset, part, table);
+      offset += part;
+      length -= part;
+      advance(part);
+    }
+  }
+
+  /**
+   * This method packs the remaining bytes of a buffer, without moving its position, stopping at every checkpoint of the seek index
+   * @param data  the buffer holding the original bytes
+   * @throws IOException if the encoded message cannot be written
+   */
+
+  private void pack(ByteBuffer data) throws IOException {
+    if (seekInterval == 0) {
+      packer.pack(data, table);
+      return;
+    }
+    /** A view of the buffer whose position and limit are moved to every section between checkpoints. */
+    ByteBuffer part = data.duplicate();
+    while (part.position() < data.limit()) {
+      part.limit((int)Math.min(data.limit(), part.position() + seekInterval - position % seekInterval));
+      packer.pack(part, table);
+      advance(part.limit() - part.position());
+      part.position(part.limit());
+    }
+  }
+
+  /**
+   * This method moves the position in the message forward and notes a checkpoint if it was reached
+   * @param count  the number of original bytes just packed
+   */
+
+  private void advance(int count) {
+    position += count;
+    if (position % seekInterval == 0) {
+      if (checkpointCount == checkpoints.length) {
+        checkpoints = Arrays.copyOf(checkpoints, checkpointCount * 2);
+      }
+      checkpoints[checkpointCount++] = packer.getNumberOfBits();
+    }
+  }
+
+  /**
+   * This method writes the end of the encoded message and finds its length in bits
+   * @return the number of bits in the encoded message, not counting the zeros that fill the last byte
+   * @throws IOException if the encoded message cannot be written
+   */
+
+  private long finish() throws IOException {
+    /** The number of zeros that fill the last byte. */
+    int extraBits = packer.finish();
+    return packer.getNumberOfBytes() * 8 - extraBits;
+  }
+
+  /**
+   * [ByteBufferOutput]
+   * The class is a stream that writes bytes into a buffer, so that the bit packer can write to a buffer the same way as to a file.
+   */
+
+  static class ByteBufferOutput extends OutputStream {
+
+    /** The buffer that bytes are written into. */
+    private ByteBuffer target;
+
+    /**
+     * This method sets the buffer that bytes are written into
+     * @param target  the buffer that bytes are written into
+     */
+
+    public void setTarget(ByteBuffer target) {
+      this.target = target;
+    }
+
+    /**
+     * This method writes a single byte into the buffer
+     * @param b  the byte being written
+     */
+
+    public void write(int b) {
+      target.put((byte)b);
+    }
+
+    /**
+     * This method writes a section of an array into the buffer
+     * @param b        the array holding the bytes
+     * @param off      the index of the first byte
+     * @param len      the number of bytes
+     */
+
+    public void write(byte[] b, int off, int len) {
+      target.put(b, off, len);
+    }
+  }
+}
@@ -0,0 +1,78 @@
+/* -------- IMPORTS ---------- */
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+/* -------------------------- */
+
+/**
+ * [MappedInput.java]
+ * The program holds the mapped input class that reads a file by mapping it into memory instead of copying it into arrays.
+ * A single mapping cannot be larger than 2 GB, so the file is mapped one window at a time.
+ * The bytes are read straight from the operating system's page cache, so reading the file a second time is cheap.
+ * @author Braydon Wang
+ * @version 1.1, Oct 18, 2026
+ */
+
+class MappedInput implements WindowSource {
+
+  /** The largest number of bytes mapped at once. */
+  static final long WINDOW_SIZE = 1L << 30;
+
+  /** The file being mapped. */
+  private RandomAccessFile file;
+  /** The channel that the windows are mapped from. */
+  private FileChannel channel;
+  /** The number of bytes in the file. */
+  private long size;
+  /** The position in the file where the next window starts. */
+  private long position;
+
+  /**
+   * Creates an object from the mapped input class.
+   * @param name  the name of the file being mapped
+   * @throws IOException if the file cannot be opened
+   */
+
+  MappedInput(String name) throws IOException {
+    this.file = new RandomAccessFile(name, "r");
+    this.channel = file.getChannel();
+    this.size = channel.size();
+    this.position = 0;
+  }
+
+  /**
+   * This method maps the next window of the file
+   * @return the next window, or null if the whole file has been mapped
+   * @throws IOException if the window cannot be mapped
+   */
+
+  public MappedByteBuffer nextWindow() throws IOException {
+    if (position >= size) {
+      return null;
+    }
+    /** The number of bytes in the window. */
+    long length = Math.min(WINDOW_SIZE, size - position);
+    /** The window of the file. */
+    MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+    position += length;
+    return window;
+  }
+
+  /**
+   * This method goes back to the start of the file so that it can be read again
+   */
+
+  public void rewind() {
+    position = 0;
+  }
+
+  /**
+   * This method closes the file. Windows that were already mapped stay readable until they are no longer used.
+   * @throws IOException if the file cannot be closed
+   */
+
+  public void close() throws IOException {
+    file.close();
+  }
+}
@@ -0,0 +1,713 @@
+/* -------- IMPORTS ---------- */
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+/* -------------------------- */
+
+/**
+ * [MzipHeader.java]
+ * The program holds the header class that describes the start of every .MZIP file.
+ * Files are written with a binary header (version 2), which starts with the magic bytes 0x89 'M' 'Z' 'P' and holds, in order,
+ * the version, the flags, the number of extra bits, the block size, the original length (8 bytes),
+ * the name (2 byte length and UTF-8 bytes), the kind of code table (the mark below, or 'T' for a tree),
+ * the description of the representations (4 byte length and bytes), a CRC-32C of everything before it,
+ * and a CRC-32C of every byte after the header. All numbers are big-endian.
+ * The checksum of the bytes after the header is only known once they are written, so the header is written again at the end.
+ * Files made before the binary header have the three text lines described below (version 1), and can still be read.
+ * The first line is the name of the original file with its extension in capital letters,
+ * the second line describes the representations, either as the bracketed binary tree, as '#' followed by their lengths,
+ * or as '@' followed by the name of a code table kept in a CodeTableStore,
+ * and the third line is the number of extra bits at the end of the encoded message.
+ * A file encoded with order-1 contexts has '%' followed by the lengths of every context's representations in the second line.
+ * A file encoded two bytes at a time has '$', then '1' if it has an odd number of bytes or '0' if not,
+ * followed by the lengths of every pair's representation in the second line.
+ * A file that would not get smaller is stored as it is, with '=' as the second line and its original bytes after the header.
+ * A file split into blocks instead has 'B' followed by the block size in the third line,
+ * and every block's encoded message starts on a new byte, with the block index at the end of the file.
+ * With the interleaved flag, every block's bytes are dealt out in turn to INTERLEAVED_STREAMS streams that each start on a new byte,
+ * and the block index holds the number of bits in every stream of every block.
+ * A file encoded by the AdaptiveEncoder class has 'A' as the second line, since its representations change from block to block,
+ * and 'A' followed by the block size in the third line.
+ * Every line ends with a carriage return and a new line.
+ * A single encoded message may be followed by a seek index (see the SeekIndex class), which the seek index flag marks.
+ * The binary header holds the same description of the representations as the second line, and the adaptive flag instead of the 'A'.
+ * @author Braydon Wang
+ * @version 1.1, Oct 18, 2026
+ */
+
+class MzipHeader {
+
+  /** The bytes at the start of every binary header. */
+  static final byte[] MAGIC = {(byte)0x89, 'M', 'Z', 'P'};
+  /** The version of the binary header. */
+  static final int VERSION = 2;
+  /** The flag set when the file was encoded adaptively. */
+  static final int FLAG_ADAPTIVE = 1;
+  /** The flag set when the header holds the checksum of the bytes after it. */
+  static final int FLAG_CHECKSUM = 2;
+  /** The flag set when the header holds the original length. */
+  static final int FLAG_LENGTH = 4;
+  /** The flag set when a seek index follows the encoded message. */
+  static final int FLAG_SEEK_INDEX = 8;
+  /** The flag set when every block is split into interleaved streams. */
+  static final int FLAG_INTERLEAVED = 16;
+  /** The number of streams that every block is split into with the interleaved flag. */
+  static final int INTERLEAVED_STREAMS = 4;
+  /** The kind of code table written for a bracketed binary tree. */
+  static final char TREE_MARK = 'T';
+  /** The character set used for the name in the binary header. */
+  static final Charset UTF_8 = Charset.forName("UTF-8");
+  /** The character set used for the description of the representations, which is always printable ASCII. */
+  static final Charset LATIN_1 = Charset.forName("ISO-8859-1");
+
+  /** The character at the start of the second line when it holds lengths instead of a tree. */
+  static final char LENGTHS_MARK = '#';
+  /** The character at the start of the third line when the file is split into blocks. */
+  static final char BLOCKS_MARK = 'B';
+  /** The character at the start of the second line when it names a stored code table. */
+  static final char TABLE_MARK = '@';
+  /** The character at the start of the second and third lines when the file was encoded adaptively. */
+  static final char ADAPTIVE_MARK = 'A';
+  /** The character at the start of the second line when it holds a code table for every context. */
+  static final char CONTEXT_MARK = '%';
+  /** The character at the start of the second line when the symbols are pairs of bytes. */
+  static final char PAIRS_MARK = '$';
+  /** The second line of a file whose original bytes are stored without being encoded. */
+  static final String STORED = "=";
+
+  /** The name of the original file, with its extension in capital letters. */
+  private String name;
+  /** The second line of the header, which describes the representations. */
+  private String table;
+  /** The number of extra bits at the end of the encoded message. */
+  private int extraBits;
+  /** The number of original bytes in every block, or 0 if the file is not split into blocks. */
+  private int blockSize;
+  /** Whether the file was encoded adaptively, one block at a time. */
+  private boolean adaptive;
+  /** The version of the header, 1 for text lines or 2 for binary. */
+  private int version;
+  /** The number of bytes in the original file, or -1 if it is not known. */
+  private long originalLength;
+  /** The checksum of every byte after the header. */
+  private int checksum;
+  /** Whether the checksum is known. */
+  private boolean hasChecksum;
+  /** Whether a seek index follows the encoded message. */
+  private boolean seekIndex;
+  /** Whether every block is split into interleaved streams. */
+  private boolean interleaved;
+  /** The number of bytes that the header takes up in the file. */
+  private int length;
+
+  /**
+   * Creates an object from the header class.
+   * @param name        the name of the original file, with its extension in capital letters
+   * @param table        the line that describes the representations
+   * @param extraBits  the number of extra bits at the end of the encoded message
+   */
+
+  MzipHeader(String name, String table, int extraBits) {
+    this(name, table, extraBits, 0);
+  }
+
+  /**
+   * Creates an object from the header class.
+   * @param name        the name of the original file, with its extension in capital letters
+   * @param table        the line that describes the representations
+   * @param extraBits  the number of extra bits at the end of the encoded message
+   * @param blockSize  the number of original bytes in every block, or 0 if the file is not split into blocks
+   */
+
+  MzipHeader(String name, String table, int extraBits, int blockSize) {
+    this(name, table, extraBits, blockSize, false);
+  }
+
+  /**
+   * Creates an object from the header class.
+   * @param name        the name of the original file, with its extension in capital letters
+   * @param table        the line that describes the representations
+   * @param extraBits  the number of extra bits at the end of the encoded message
+   * @param blockSize  the number of original bytes in every block, or 0 if the file is not split into blocks
+   * @param adaptive   whether the file was encoded adaptively, one block at a time
+   * @throws IllegalArgumentException if the name takes more bytes than the header can hold
+   */
+
+  MzipHeader(String name, String table, int extraBits, int blockSize, boolean adaptive) {
+    //The length of the name is written in two bytes, so a longer name would make the rest of the header unreadable
+    if (name.getBytes(UTF_8).length > 0xFFFF) {
+      throw new IllegalArgumentException("The name of the original file is longer than the 65535 bytes that a .MZIP header can hold");
+    }
+    this.name = name;
+    this.table = table;
+    this.extraBits = extraBits;
+    this.blockSize = blockSize;
+    this.adaptive = adaptive;
+    this.version = VERSION;
+    this.originalLength = -1;
+    this.length = toBytes().length;
+  }
+
+  /**
+   * This method returns the name of the original file
+   * @return the name of the original file
+   */
+
+  public String getName() {
+    return this.name;
+  }
+
+  /**
+   * This method returns the number of extra bits at the end of the encoded message
+   * @return the number of extra bits
+   */
+
+  public int getExtraBits() {
+    return this.extraBits;
+  }
+
+  /**
+   * This method returns the number of original bytes in every block
+   * @return the block size, or 0 if the file is not split into blocks
+   */
+
+  public int getBlockSize() {
+    return this.blockSize;
+  }
+
+  /**
+   * This method changes the number of extra bits, for a message whose length is only known once it is encoded
+   * @param extraBits  the number of extra bits at the end of the encoded message
+   */
+
+  public void setExtraBits(int extraBits) {
+    this.extraBits = extraBits;
+  }
+
+  /**
+   * This method returns the version of the header
+   * @return 1 for a header of text lines, or 2 for a binary header
+   */
+
+  public int getVersion() {
+    return this.version;
+  }
+
+  /**
+   * This method returns the number of bytes in the original file
+   * @return the original length, or -1 if it is not known
+   */
+
+  public long getOriginalLength() {
+    return this.originalLength;
+  }
+
+  /**
+   * This method sets the number of bytes in the original file
+   * @param originalLength  the original length, or -1 if it is not known
+   */
+
+  public void setOriginalLength(long originalLength) {
+    this.originalLength = originalLength;
+  }
+
+  /**
+   * This method returns whether the header holds the checksum of the bytes after it
+   * @return true if the checksum is known
+   */
+
+  public boolean hasChecksum() {
+    return this.hasChecksum;
+  }
+
+  /**
+   * This method returns the CRC-32C of every byte after the header
+   * @return the checksum
+   */
+
+  public int getChecksum() {
+    return this.checksum;
+  }
+
+  /**
+   * This method sets the CRC-32C of every byte after the header
+   * @param checksum  the checksum
+   */
+
+  public void setChecksum(int checksum) {
+    this.checksum = checksum;
+    this.hasChecksum = true;
+  }
+
+  /**
+   * This method returns whether a seek index follows the encoded message
+   * @return true if the file ends with a seek index
+   */
+
+  public boolean hasSeekIndex() {
+    return this.seekIndex;
+  }
+
+  /**
+   * This method sets whether a seek index follows the encoded message
+   * @param seekIndex  whether the file ends with a seek index
+   */
+
+  public void setSeekIndex(boolean seekIndex) {
+    this.seekIndex = seekIndex;
+  }
+
+  /**
+   * This method returns the number of streams that every block is split into
+   * @return INTERLEAVED_STREAMS if the blocks are interleaved, otherwise 1
+   */
+
+  public int getStreamCount() {
+    return this.interleaved ? INTERLEAVED_STREAMS : 1;
+  }
+
+  /**
+   * This method sets whether every block is split into interleaved streams
+   * @param interleaved  whether the bytes of every block are dealt out to INTERLEAVED_STREAMS streams
+   */
+
+  public void setInterleaved(boolean interleaved) {
+    this.interleaved = interleaved;
+  }
+
+  /**
+   * This method returns whether the file was encoded adaptively
+   * @return true if the representations change from block to block
+   */
+
+  public boolean isAdaptive() {
+    return this.adaptive;
+  }
+
+  /**
+   * This method returns the number of bytes that the header takes up in the file
+   * @return the length of the header
+   */
+
+  public int getLength() {
+    return this.length;
+  }
+
+  /**
+   * This method returns whether the original bytes are stored without being encoded
+   * @return true if the bytes after the header are the original file
+   */
+
+  public boolean isStored() {
+    return !adaptive && table.equals(STORED);
+  }
+
+  /**
+   * This method rebuilds the code table that the second line of the header describes
+   * @param store  the store that named code tables are loaded from, or null if there is none
+   * @return           the code table holding every byte's representation
+   * @throws IOException if the header names a code table that cannot be loaded
+   */
+
+  public CodeTable createCodeTable(CodeTableStore store) throws IOException {
+    if (adaptive) {
+      throw new IOException("The file was encoded adaptively, so it has no single code table");
+    }
+    //A named table is loaded from the store instead of being written in the header
+    if (tableKind() == TABLE_MARK) {
+      if (store == null) {
+        throw new IOException("The file was encoded with the stored code table " + table.substring(1));
+      }
+      return store.load(table.substring(1));
+    }
+    if (tableKind() == CONTEXT_MARK) {
+      throw new IOException("The file was encoded with order-1 contexts, so it has a code table for every context");
+    }
+    if (isStored()) {
+      throw new IOException("The file is stored without being encoded, so it has no code table");
+    }
+    if (tableKind() == PAIRS_MARK) {
+      throw new IOException("The file was encoded two bytes at a time, so its code table is for pairs of bytes");
+    }
+    if (tableKind() == LENGTHS_MARK) {
+      return CodeTable.fromLengths(CodeTable.lengthsFromString(table.substring(1), 256));
+    }
+    return CodeTable.fromTreeString(table);
+  }
+
+  /**
+   * This method rebuilds the code table of every context when the file was encoded with order-1 contexts
+   * @return the context table, or null if the file has a single code table
+   */
+
+  public ContextTable createContextTable() {
+    if (adaptive || tableKind() != CONTEXT_MARK) {
+      return null;
+    }
+    return ContextTable.fromString(table.substring(1));
+  }
+
+  /**
+   * This method rebuilds the code table of every pair of bytes when the file was encoded two bytes at a time
+   * @return the code table of the pairs, or null if the symbols are single bytes
+   */
+
+  public CodeTable createPairTable() {
+    if (adaptive || tableKind() != PAIRS_MARK) {
+      return null;
+    }
+    if (table.length() < 2) {
+      throw new IllegalArgumentException("Not a valid .MZIP pair table");
+    }
+    return CodeTable.fromLengths(CodeTable.lengthsFromString(table.substring(2), PairEncoder.SYMBOLS));
+  }
+
+  /**
+   * This method returns whether a file encoded two bytes at a time had an odd number of bytes
+   * @return true if the 0 added after the last byte must be removed
+   */
+
+  public boolean hasOddByte() {
+    return table.length() > 1 && table.charAt(0) == PAIRS_MARK && table.charAt(1) == '1';
+  }
+
+  /**
+   * This method writes the header
+   * @param out  the stream that the header is written to
+   * @throws IOException if the header cannot be written
+   */
+
+  public void write(OutputStream out) throws IOException {
+    //A header read from an older file is written the same way it was read
+    if (version == 1) {
+      writeLine(out, name);
+      writeLine(out, table);
+      writeLine(out, thirdLine());
+      return;
+    }
+    out.write(toBytes());
+  }
+
+  /**
+   * This method writes the header again at the start of a file, once the extra bits and the checksum are known.
+   * The header keeps the same length, so the bytes after it are not moved.
+   * @param channel  the channel of the .MZIP file
+   * @throws IOException if the header cannot be written
+   */
+
+  public void rewrite(FileChannel channel) throws IOException {
+    /** The bytes of the header. */
+    ByteBuffer bytes = ByteBuffer.wrap(toBytes());
+    /** The position in the file of the next byte to write. */
+    long position = 0;
+    while (bytes.hasRemaining()) {
+      position += channel.write(bytes, position);
+    }
+  }
+
+  /**
+   * This method writes the header again at the start of a file that has already been closed
+   * @param fileName  the name of the .MZIP file
+   * @throws IOException if the header cannot be written
+   */
+
+  public void rewrite(String fileName) throws IOException {
+    /** The file opened for writing at any position. */
+    RandomAccessFile file = new RandomAccessFile(fileName, "rw");
+    try {
+      rewrite(file.getChannel());
+    } finally {
+      file.close();
+    }
+  }
+
+  /**
+   * This method puts together the bytes of the binary header
+   * @return the bytes of the header
+   */
+
+  private byte[] toBytes() {
+    /** The bytes of the name. */
+    byte[] nameBytes = name.getBytes(UTF_8);
+    /** The bytes of the description of the representations. */
+    byte[] tableBytes = table.getBytes(LATIN_1);
+    /** The array that the header is put together in. */
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(32 + nameBytes.length + tableBytes.length);
+    /** The stream used to write numbers into the array. */
+    DataOutputStream out = new DataOutputStream(bytes);
+    /** The flags of the header. */
+    int flags = (adaptive ? FLAG_ADAPTIVE : 0) | (hasChecksum ? FLAG_CHECKSUM : 0) | (originalLength >= 0 ? FLAG_LENGTH : 0)
+                  | (seekIndex ? FLAG_SEEK_INDEX : 0) | (interleaved ? FLAG_INTERLEAVED : 0);
+
+    try {
+      out.write(MAGIC);
+      out.writeByte(VERSION);
+      out.writeByte(flags);
+      out.writeByte(extraBits);
+      out.writeInt(blockSize);
+      out.writeLong(originalLength);
+      out.writeShort(nameBytes.length);
+      out.write(nameBytes);
+      out.writeByte(tableKind());
+      out.writeInt(tableBytes.length);
+      out.write(tableBytes);
+
+      /** The checksum of the header so far. */
+      CRC32C headerChecksum = new CRC32C();
+      headerChecksum.update(bytes.toByteArray(), 0, bytes.size());
+      out.writeInt((int)headerChecksum.getValue());
+      out.writeInt(checksum);
+    } catch (IOException e) {
+      //Writing into an array never fails with an IOException
+      throw new IllegalStateException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  /**
+   * This method finds the kind of code table that the header describes
+   * @return the mark at the start of the description, or 'T' for a bracketed tree
+   */
+
+  private char tableKind() {
+    /** The first character of the description. */
+    char first = table.length() > 0 ? table.charAt(0) : TREE_MARK;
+    if (first == LENGTHS_MARK || first == TABLE_MARK || first == ADAPTIVE_MARK || first == CONTEXT_MARK
+          || first == PAIRS_MARK || table.equals(STORED)) {
+      return first;
+    }
+    return TREE_MARK;
+  }
+
+  /**
+   * This method returns the third line of the header
+   * @return the block size after a 'B' if the file is split into blocks, otherwise the number of extra bits
+   */
+
+  private String thirdLine() {
+    if (adaptive) {
+      return ADAPTIVE_MARK + "" + blockSize;
+    }
+    if (blockSize > 0) {
+      return BLOCKS_MARK + "" + blockSize;
+    }
+    return "" + (char)(extraBits + '0');
+  }
+
+  /**
+   * This method reads the header, leaving the stream at the start of the encoded message.
+   * Both binary headers and the text lines of older files are read.
+   * @param in  the stream that the header is read from, which must support mark and reset
+   * @return      the header that was read
+   * @throws IOException if the header cannot be read or its checksum does not match
+   */
+
+  public static MzipHeader read(InputStream in) throws IOException {
+    /** The first bytes of the file, which are the magic bytes in a binary header. */
+    byte[] start = new byte[MAGIC.length];
+    /** The number of bytes of the magic read so far. */
+    int count = 0;
+
+    in.mark(MAGIC.length);
+    while (count < start.length) {
+      /** The number of bytes read this time. */
+      int read = in.read(start, count, start.length - count);
+      if (read == -1) {
+        break;
+      }
+      count += read;
+    }
+    if (count == MAGIC.length && Arrays.equals(start, MAGIC)) {
+      return readBinary(in);
+    }
+    in.reset();
+    return readText(in);
+  }
+
+  /**
+   * This method reads the rest of a binary header after its magic bytes
+   * @param in  the stream that the header is read from
+   * @return      the header that was read
+   * @throws IOException if the header cannot be read or its checksum does not match
+   */
+
+  private static MzipHeader readBinary(InputStream in) throws IOException {
+    /** The stream used to read numbers. */
+    DataInputStream dataIn = new DataInputStream(in);
+    /** The array that every byte of the header is copied into, so that its checksum can be checked. */
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    /** The stream used to copy numbers into the array. */
+    DataOutputStream copy = new DataOutputStream(bytes);
+
+    copy.write(MAGIC);
+    /** The version of the header. */
+    int version = dataIn.readUnsignedByte();
+    if (version != VERSION) {
+      throw new IOException("Unsupported .MZIP version " + version);
+    }
+    copy.writeByte(version);
+    /** The flags of the header. */
+    int flags = dataIn.readUnsignedByte();
+    copy.writeByte(flags);
+    /** The number of extra bits at the end of the encoded message. */
+    int extraBits = dataIn.readUnsignedByte();
+    copy.writeByte(extraBits);
+    /** The number of original bytes in every block. */
+    int blockSize = dataIn.readInt();
+    copy.writeInt(blockSize);
+    /** The number of bytes in the original file. */
+    long originalLength = dataIn.readLong();
+    copy.writeLong(originalLength);
+    /** The bytes of the name. */
+    byte[] nameBytes = new byte[dataIn.readUnsignedShort()];
+    copy.writeShort(nameBytes.length);
+    dataIn.readFully(nameBytes);
+    copy.write(nameBytes);
+    /** The kind of code table. */
+    int kind = dataIn.readUnsignedByte();
+    copy.writeByte(kind);
+    /** The number of bytes in the description of the representations. */
+    int tableLength = dataIn.readInt();
+    if (tableLength < 0 || tableLength > (1 << 24)) {
+      throw new IOException("Not a valid .MZIP header");
+    }
+    copy.writeInt(tableLength);
+    /** The bytes of the description of the representations. */
+    byte[] tableBytes = new byte[tableLength];
+    dataIn.readFully(tableBytes);
+    copy.write(tableBytes);
+
+    //The header must not have been damaged
+    /** The checksum of the header as it was read. */
+    CRC32C headerChecksum = new CRC32C();
+    headerChecksum.update(bytes.toByteArray(), 0, bytes.size());
+    if (dataIn.readInt() != (int)headerChecksum.getValue()) {
+      throw new IOException("The .MZIP header is damaged (checksum mismatch)");
+    }
+    /** The checksum of every byte after the header. */
+    int checksum = dataIn.readInt();
+
+    if (extraBits > 7 || blockSize < 0 || ((flags & (FLAG_ADAPTIVE | FLAG_INTERLEAVED)) != 0 && blockSize == 0)) {
+      throw new IOException("Not a valid .MZIP header");
+    }
+    /** The header that was read. */
+    MzipHeader header = new MzipHeader(new String(nameBytes, UTF_8), new String(tableBytes, LATIN_1), extraBits, blockSize,
+                                       (flags & FLAG_ADAPTIVE) != 0);
+    if (header.tableKind() != kind) {
+      throw new IOException("Not a valid .MZIP header");
+    }
+    if ((flags & FLAG_LENGTH) != 0) {
+      header.setOriginalLength(originalLength);
+    }
+    if ((flags & FLAG_CHECKSUM) != 0) {
+      header.setChecksum(checksum);
+    }
+    header.setSeekIndex((flags & FLAG_SEEK_INDEX) != 0);
+    header.setInterleaved((flags & FLAG_INTERLEAVED) != 0);
+    return header;
+  }
+
+  /**
+   * This method reads the three text lines of a header from before the binary header
+   * @param in  the stream that the header is read from
+   * @return      the header that was read
+   * @throws IOException if the header cannot be read
+   */
+
+  private static MzipHeader readText(InputStream in) throws IOException {
+    /** The name of the original file. */
+    String name = readLine(in);
+    /** The line that describes the representations. */
+    String table = readLine(in);
+    /** The line that holds the number of extra bits or the block size. */
+    String thirdLine = readLine(in);
+
+    if (table.length() == 0 || thirdLine.length() == 0) {
+      throw new IOException("Not a valid .MZIP header");
+    }
+
+    //A file split into blocks has the block size after a 'B', or after an 'A' if it was encoded adaptively
+    if (thirdLine.charAt(0) == BLOCKS_MARK || thirdLine.charAt(0) == ADAPTIVE_MARK) {
+      /** The number of original bytes in every block. */
+      int blockSize;
+      try {
+        blockSize = Integer.parseInt(thirdLine.substring(1));
+      } catch (NumberFormatException e) {
+        throw new IOException("Not a valid .MZIP header");
+      }
+      if (blockSize <= 0) {
+        throw new IOException("Not a valid .MZIP header");
+      }
+      return textHeader(new MzipHeader(name, table, 0, blockSize, thirdLine.charAt(0) == ADAPTIVE_MARK));
+    }
+
+    if (thirdLine.length() != 1 || thirdLine.charAt(0) < '0' || thirdLine.charAt(0) > '7') {
+      throw new IOException("Not a valid .MZIP header");
+    }
+    return textHeader(new MzipHeader(name, table, thirdLine.charAt(0) - '0'));
+  }
+
+  /**
+   * This method marks a header as one read from text lines, which changes its length
+   * @param header  the header that was read
+   * @return             the same header
+   */
+
+  private static MzipHeader textHeader(MzipHeader header) {
+    header.version = 1;
+    header.length = header.name.length() + header.table.length() + header.thirdLine().length() + 6;
+    return header;
+  }
+
+  /**
+   * This method writes a line of characters as bytes followed by a carriage return and a new line
+   * @param out    the stream that the line is written to
+   * @param line   the characters in the line
+   * @throws IOException if the line cannot be written
+   */
+
+  private static void writeLine(OutputStream out, String line) throws IOException {
+    for (int i = 0; i < line.length(); i++) {
+      out.write(line.charAt(i));
+    }
+    //Carriage return
+    out.write(13);
+    //Moving to the next line
+    out.write(10);
+  }
+
+  /**
+   * This method reads bytes as characters until a carriage return and a new line are reached
+   * @param in  the stream that the line is read from
+   * @return      the characters in the line, without the carriage return and new line
+   * @throws IOException if the stream ends before the line does
+   */
+
+  private static String readLine(InputStream in) throws IOException {
+    /** The characters of the line read so far. */
+    StringBuilder sb = new StringBuilder();
+    /** The current byte read from the stream. */
+    int c;
+
+    while ((c = in.read()) != -1) {
+      //The line ends at a carriage return followed by a new line
+      if (c == 13) {
+        if (in.read() != 10) {
+          throw new IOException("Not a valid .MZIP header");
+        }
+        return sb.toString();
+      }
+      sb.append((char)c);
+    }
+    throw new EOFException("The file ended inside the .MZIP header");
+  }
+}
@@ -0,0 +1,296 @@
+/* -------- IMPORTS ---------- */
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+/* -------------------------- */
+
+/**
+ * [MzipReader.java]
+ * The program holds the reader class that lets other programs read any range of the original bytes of a .MZIP file
+ * without decoding the whole file.
+ * A single encoded message is decoded from the last checkpoint of its seek index before the range,
+ * a file split into blocks only decodes the blocks that the range covers, and a stored file is read straight from its position.
+ * A single message without a seek index still works, but has to be decoded from the start,
+ * unless the range starts right where the last one ended, which carries on from where decoding stopped.
+ * Files encoded adaptively, with order-1 contexts or two bytes at a time cannot be read from the middle.
+ * A reader is not safe to use from several threads at once.
+ * @author Braydon Wang
+ * @version 1.1, Oct 18, 2026
+ */
+
+class MzipReader implements Closeable {
+
+  /** The .MZIP file, opened for reading. */
+  private RandomAccessFile file;
+  /** The header at the start of the file. */
+  private MzipHeader header;
+  /** The decoder of a single encoded message, or null if the file is not one. */
+  private HuffmanDecoder decoder;
+  /** The seek index of a single encoded message, or null if it has none. */
+  private SeekIndex index;
+  /** The decoder of a file split into blocks, or null if the file is not split. */
+  private BlockDecoder blocks;
+  /** The number of bytes after the header that belong to the encoded message, leaving out the seek index. */
+  private long payloadLength;
+  /** The index of the block decoded last, or -1 if there is none. */
+  private int cachedIndex;
+  /** The original bytes of the block decoded last, kept so that reading through a block in small ranges only decodes it once. */
+  private byte[] cachedBlock;
+  /** The bit reader where the last read of a single message stopped, or null if there is none. */
+  private BitReader next;
+  /** The position of the original byte that the bit reader is at. */
+  private long nextPosition;
+  /** The number of bits left in the encoded message after where the bit reader is. */
+  private long nextBitsLeft;
+
+  /**
+   * Creates an object from the reader class and reads the header and any index of the file.
+   * @param fileName  the name of the .MZIP file
+   * @param store         the store that named code tables are loaded from, or null if there is none
+   * @throws IOException if the file cannot be read or cannot be read from the middle
+   */
+
+  MzipReader(String fileName, CodeTableStore store) throws IOException {
+    /** The stream used to read the header. */
+    InputStream in = new BufferedInputStream(new FileInputStream(fileName));
+    try {
+      header = MzipHeader.read(in);
+    } finally {
+      in.close();
+    }
+    if (header.isAdaptive() || header.createPairTable() != null || header.createContextTable() != null) {
+      throw new IOException(fileName + " was not encoded in a way that can be read from the middle");
+    }
+
+    file = new RandomAccessFile(fileName, "r");
+    cachedIndex = -1;
+    try {
+      payloadLength = payloadLength(file, header);
+      if (header.isStored()) {
+        return;
+      }
+      /** The code table holding every byte's representation. */
+      CodeTable table = header.createCodeTable(store);
+      if (header.getBlockSize() > 0) {
+        blocks = new BlockDecoder(file, header, table);
+      } else {
+        decoder = new HuffmanDecoder(table);
+        if (header.hasSeekIndex()) {
+          index = SeekIndex.read(file, header.getLength());
+        }
+      }
+    } catch (IOException e) {
+      file.close();
+      throw e;
+    }
+  }
+
+  /**
+   * This method returns the header at the start of the file
+   * @return the header
+   */
+
+  public MzipHeader getHeader() {
+    return header;
+  }
+
+  /**
+   * This method returns the number of bytes in the original file
+   * @return the number of bytes, or -1 if the header does not hold it
+   */
+
+  public long length() {
+    if (header.isStored()) {
+      return payloadLength;
+    }
+    return header.getOriginalLength();
+  }
+
+  /**
+   * This method reads a range of the original bytes
+   * @param position  the index of the first original byte to read
+   * @param b             the array that the bytes are read into
+   * @param off           the index in the array of the first byte read
+   * @param len           the largest number of bytes to read
+   * @return                the number of bytes read, which is only less than len at the end of the file, or -1 if the position is past the end
+   * @throws IOException if the file cannot be read or does not match its representations
+   */
+
+  public int read(long position, byte[] b, int off, int len) throws IOException {
+    if (position < 0 || off < 0 || len < 0 || off + len > b.length) {
+      throw new IndexOutOfBoundsException();
+    }
+    /** The number of bytes read. */
+    int count;
+    if (header.isStored()) {
+      count = readStored(position, b, off, len);
+    } else if (blocks != null) {
+      count = readBlocks(position, b, off, len);
+    } else {
+      count = readMessage(position, b, off, len);
+    }
+    return count == 0 && len > 0 ? -1 : count;
+  }
+
+  /**
+   * This method closes the file
+   * @throws IOException if the file cannot be closed
+   */
+
+  public void close() throws IOException {
+    file.close();
+  }
+
+  /**
+   * This method reads a range of a stored file, whose original bytes come right after the header
+   * @param position  the index of the first original byte to read
+   * @param b             the array that the bytes are read into
+   * @param off           the index in the array of the first byte read
+   * @param len           the largest number of bytes to read
+   * @return                the number of bytes read
+   * @throws IOException if the file cannot be read
+   */
+
+  private int readStored(long position, byte[] b, int off, int len) throws IOException {
+    /** The number of bytes read. */
+    int count = (int)Math.max(0, Math.min(len, payloadLength - position));
+    file.seek(header.getLength() + position);
+    file.readFully(b, off, count);
+    return count;
+  }
+
+  /**
+   * This method reads a range of a file split into blocks, decoding only the blocks that the range covers
+   * @param position  the index of the first original byte to read
+   * @param b             the array that the bytes are read into
+   * @param off           the index in the array of the first byte read
+   * @param len           the largest number of bytes to read
+   * @return                the number of bytes read
+   * @throws IOException if a block cannot be read or decoded
+   */
+
+  private int readBlocks(long position, byte[] b, int off, int len) throws IOException {
+    /** The number of bytes read. */
+    int count = 0;
+
+    while (count < len) {
+      /** The index of the block holding the next byte. */
+      long block = (position + count) / header.getBlockSize();
+      if (block >= blocks.getBlockCount()) {
+        break;
+      }
+      if (block != cachedIndex) {
+        cachedBlock = blocks.readBlock((int)block);
+        cachedIndex = (int)block;
+      }
+      /** The index of the next byte in the block. */
+      int start = (int)((position + count) % header.getBlockSize());
+      if (start >= cachedBlock.length) {
+        break;
+      }
+      /** The number of bytes taken from the block. */
+      int part = Math.min(len - count, cachedBlock.length - start);
+      System.arraycopy(cachedBlock, start, b, off + count, part);
+      count += part;
+    }
+    return count;
+  }
+
+  /**
+   * This method reads a range of a single encoded message, decoding from the last checkpoint before the range
+   * @param position  the index of the first original byte to read
+   * @param b             the array that the bytes are read into
+   * @param off           the index in the array of the first byte read
+   * @param len           the largest number of bytes to read
+   * @return                the number of bytes read
+   * @throws IOException if the file cannot be read or does not match its representations
+   */
+
+  private int readMessage(long position, byte[] b, int off, int len) throws IOException {
+    /** The checkpoint to start decoding from. */
+    int checkpoint = index != null ? index.findCheckpoint(position) : 0;
+    /** The number of bits before the checkpoint. */
+    long bitOffset = index != null ? index.getBitOffset(checkpoint) : 0;
+    /** The number of original bytes between the checkpoint and the start of the range. */
+    long skip = index != null ? position - checkpoint * index.getInterval() : position;
+    /** The number of bits left in the encoded message after the checkpoint. */
+    long bitsLeft = payloadLength * 8 - header.getExtraBits() - bitOffset;
+    /** The bit reader that reads the encoded message. */
+    BitReader in;
+
+    //A range that starts where the last one ended carries on from there, as long as that is not before the checkpoint
+    if (next != null && nextPosition <= position && nextPosition > position - skip) {
+      in = next;
+      skip = position - nextPosition;
+      bitsLeft = nextBitsLeft;
+
+    //Otherwise the bit reader starts at the byte holding the checkpoint and moves past the bits of that byte that come before it
+    } else {
+      file.getChannel().position(header.getLength() + bitOffset / 8);
+      in = new BitReader(Channels.newInputStream(file.getChannel()));
+      if (bitOffset % 8 > 0) {
+        in.read((int)(bitOffset % 8));
+      }
+    }
+
+    //The bytes before the range are decoded only to find where the range starts
+    for (; skip > 0 && bitsLeft > 0; skip--) {
+      bitsLeft -= decoder.decodeSymbol(in, bitsLeft) & 0xFF;
+    }
+    /** The number of bytes read. */
+    int count = 0;
+    while (count < len && bitsLeft > 0) {
+      /** The byte that was decoded and the length of its representation. */
+      int symbol = decoder.decodeSymbol(in, bitsLeft);
+      bitsLeft -= symbol & 0xFF;
+      b[off + count++] = (byte)(symbol >>> 8);
+    }
+    next = in;
+    nextPosition = position + count;
+    nextBitsLeft = bitsLeft;
+    return count;
+  }
+
+  /**
+   * This method finds how many bytes after the header belong to the encoded message, leaving out any seek index at the end
+   * @param fileName  the name of the .MZIP file
+   * @param header     the header at the start of the file
+   * @return               the number of bytes
+   * @throws IOException if the seek index cannot be read
+   */
+
+  static long payloadLength(String fileName, MzipHeader header) throws IOException {
+    if (!header.hasSeekIndex()) {
+      return new File(fileName).length() - header.getLength();
+    }
+    /** The file opened for reading its seek index. */
+    RandomAccessFile file = new RandomAccessFile(fileName, "r");
+    try {
+      return payloadLength(file, header);
+    } finally {
+      file.close();
+    }
+  }
+
+  /**
+   * This method finds how many bytes after the header belong to the encoded message, leaving out any seek index at the end
+   * @param file     the .MZIP file, opened for reading
+   * @param header  the header at the start of the file
+   * @return            the number of bytes
+   * @throws IOException if the seek index cannot be read
+   */
+
+  static long payloadLength(RandomAccessFile file, MzipHeader header) throws IOException {
+    /** The number of bytes after the header. */
+    long length = file.length() - header.getLength();
+    if (header.hasSeekIndex()) {
+      length -= SeekIndex.read(file, header.getLength()).getByteLength();
+    }
+    return length;
+  }
+}
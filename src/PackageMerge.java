@@ -0,0 +1,137 @@
+/* -------- IMPORTS ---------- */
+import java.util.Arrays;
+import java.util.Comparator;
+/* -------------------------- */
+
+/**
+ * [PackageMerge.java]
+ * The program holds the package-merge class that finds the length of every byte's representation
+ * when no representation may be longer than a given number of bits.
+ * Starting from the deepest level, neighbouring items are paired into packages and merged with the bytes again,
+ * and the items picked from the top level tell how many levels each byte reaches, which is its length.
+ * The lengths are the best ones possible under the limit and can be turned into canonical representations.
+ * @author Braydon Wang
+ * @version 1.1, Oct 18, 2026
+ */
+
+class PackageMerge {
+
+  /**
+   * This method finds the length of every byte's representation without going over the limit
+   * @param frequency  the frequency of every byte, indexed by the unsigned value of the byte
+   * @param maxLength  the longest representation allowed
+   * @return                 the number of bits in every byte's representation, or 0 if the byte does not appear
+   */
+
+  public static int[] findLengths(final long[] frequency, int maxLength) {
+    /** The number of bits in every byte's representation. */
+    int[] lengths = new int[frequency.length];
+    /** The bytes that appear, sorted from the lowest to the highest frequency. */
+    Integer[] symbols = presentSymbols(frequency);
+    /** The number of bytes that appear. */
+    int n = symbols.length;
+
+    //With no bytes there is nothing to represent, and a single byte still needs one bit
+    if (n == 0) {
+      return lengths;
+    } else if (n == 1) {
+      lengths[symbols[0]] = 1;
+      return lengths;
+    }
+
+    //There must be enough representations of the maximum length for every byte
+    if (maxLength < 1 || maxLength > CodeTable.MAX_CODE_LENGTH || (maxLength < 31 && (1 << maxLength) < n)) {
+      throw new IllegalArgumentException(n + " bytes cannot be represented in at most " + maxLength + " bits");
+    }
+
+    /** The frequency of every byte that appears, in sorted order. */
+    long[] leafWeights = new long[n];
+    for (int i = 0; i < n; i++) {
+      leafWeights[i] = frequency[symbols[i]];
+    }
+
+    /** Whether every item at each level is a byte (true) or a package (false), with level 1 at the top. */
+    boolean[][] isLeaf = new boolean[maxLength + 1][];
+    /** The weight of every item at the level below the current one. */
+    long[] below = leafWeights;
+    isLeaf[maxLength] = new boolean[n];
+    Arrays.fill(isLeaf[maxLength], true);
+
+    //Work up from the deepest level, pairing the items below into packages and merging them with the bytes
+    for (int level = maxLength - 1; level >= 1; level--) {
+      /** The number of packages made from the level below. */
+      int packages = below.length / 2;
+      /** The weight of every item at this level. */
+      long[] weights = new long[n + packages];
+      isLeaf[level] = new boolean[n + packages];
+      /** The index of the next byte to merge. */
+      int leaf = 0;
+      /** The index of the next package to merge. */
+      int pack = 0;
+
+      for (int i = 0; i < weights.length; i++) {
+        //Bytes are placed before packages of the same weight
+        if (pack == packages || (leaf < n && leafWeights[leaf] <= below[2 * pack] + below[2 * pack + 1])) {
+          weights[i] = leafWeights[leaf++];
+          isLeaf[level][i] = true;
+        } else {
+          weights[i] = below[2 * pack] + below[2 * pack + 1];
+          pack++;
+        }
+      }
+      below = weights;
+    }
+
+    /** The number of items picked at the current level, starting with 2n - 2 at the top. */
+    int picked = 2 * n - 2;
+
+    //Every byte picked at a level is one bit longer, and every package picked takes two items from the level below
+    for (int level = 1; level <= maxLength && picked > 0; level++) {
+      /** The number of bytes among the picked items, which are always the lowest frequency bytes. */
+      int leaves = 0;
+      for (int i = 0; i < picked; i++) {
+        if (isLeaf[level][i]) {
+          leaves++;
+        }
+      }
+      for (int i = 0; i < leaves; i++) {
+        lengths[symbols[i]]++;
+      }
+      picked = 2 * (picked - leaves);
+    }
+    return lengths;
+  }
+
+  /**
+   * This method finds the bytes that appear and sorts them by frequency
+   * @param frequency  the frequency of every byte
+   * @return                 the bytes that appear, from the lowest to the highest frequency
+   */
+
+  private static Integer[] presentSymbols(final long[] frequency) {
+    /** The number of bytes that appear. */
+    int n = 0;
+    for (int x = 0; x < frequency.length; x++) {
+      if (frequency[x] > 0) {
+        n++;
+      }
+    }
+
+    /** The bytes that appear. */
+    Integer[] symbols = new Integer[n];
+    n = 0;
+    for (int x = 0; x < frequency.length; x++) {
+      if (frequency[x] > 0) {
+        symbols[n++] = x;
+      }
+    }
+
+    //Sorting is stable, so bytes of the same frequency stay in order of their value
+    Arrays.sort(symbols, new Comparator<Integer>() {
+      public int compare(Integer a, Integer b) {
+        return Long.compare(frequency[a], frequency[b]);
+      }
+    });
+    return symbols;
+  }
+}
@@ -0,0 +1,75 @@
+/* -------- IMPORTS ---------- */
+import java.io.IOException;
+import java.io.OutputStream;
+/* -------------------------- */
+
+/**
+ * [PairDecoder.java]
+ * The program holds the pair decoder class that decodes a message written by the PairEncoder class.
+ * The same lookup table as a single byte message is used, since the HuffmanDecoder class works for any number of symbols,
+ * and every decoded symbol is written as its two bytes.
+ * @author Braydon Wang
+ * @version 1.1, Oct 18, 2026
+ */
+
+class PairDecoder {
+
+  /** The number of bytes decoded before they are written to the output stream. */
+  static final int BUFFER_SIZE = 1 << 16;
+
+  /** The decoder that finds every pair's symbol. */
+  private HuffmanDecoder decoder;
+  /** Whether the message had an odd number of bytes, so that the 0 added after its last byte is removed. */
+  private boolean oddByte;
+
+  /**
+   * Creates an object from the pair decoder class.
+   * @param table      the code table holding every pair's representation
+   * @param oddByte  whether the message had an odd number of bytes
+   */
+
+  PairDecoder(CodeTable table, boolean oddByte) {
+    this.decoder = new HuffmanDecoder(table);
+    this.oddByte = oddByte;
+  }
+
+  /**
+   * This method decodes an encoded message and writes the original bytes
+   * @param in                  the bit reader that the encoded message is read from
+   * @param numberOfBits  the number of bits in the encoded message, not counting the extra bits
+   * @param out               the stream that the original bytes are written to
+   * @throws IOException if the message cannot be read, does not match the representations, or cannot be written
+   */
+
+  public void decode(BitReader in, long numberOfBits, OutputStream out) throws IOException {
+    /** The buffer that decoded bytes are collected in before they are written. */
+    byte[] buffer = new byte[BUFFER_SIZE];
+    /** The number of decoded bytes waiting in the buffer. */
+    int count = 0;
+    /** The number of bits left to decode. */
+    long bitsLeft = numberOfBits;
+
+    while (bitsLeft > 0) {
+      /** The pair that was decoded and the length of its representation. */
+      int symbol = decoder.decodeSymbol(in, bitsLeft);
+      bitsLeft -= symbol & 0xFF;
+
+      buffer[count++] = (byte)(symbol >>> 16);
+      buffer[count++] = (byte)(symbol >>> 8);
+      //The last chunk is kept until the end, in case its last byte has to be removed
+      if (count == buffer.length && bitsLeft > 0) {
+        out.write(buffer, 0, count);
+        count = 0;
+      }
+    }
+
+    //The last pair of an odd message only holds one byte of the original message
+    if (oddByte) {
+      if (count == 0) {
+        throw new IOException("The encoded message does not match the representations");
+      }
+      count--;
+    }
+    out.write(buffer, 0, count);
+  }
+}
@@ -0,0 +1,103 @@
+/* -------- IMPORTS ---------- */
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+/* -------------------------- */
+
+/**
+ * [PairEncoder.java]
+ * The program holds the pair encoder class that encodes a message two bytes at a time instead of one.
+ * Every pair of bytes is a single symbol from 0 to 65535 (the first byte shifted left by 8 bits plus the second),
+ * so common pairs in structured text, like a comma followed by a quote or the two letters of a common ending,
+ * get one short representation instead of two.
+ * A message with an odd number of bytes has a 0 added after its last byte, which the decoder removes again.
+ * @author Braydon Wang
+ * @version 1.1, Oct 18, 2026
+ */
+
+class PairEncoder {
+
+  /** The number of different symbols, one for every pair of bytes. */
+  static final int SYMBOLS = 256 * 256;
+  /** The longest representation allowed when no other limit is given. */
+  static final int DEFAULT_MAX_BITS = 24;
+
+  /** The code table holding every pair's representation. */
+  private CodeTable table;
+  /** The bit packer that is reused for every message. */
+  private BitPacker packer;
+  /** The buffer that is reused to hold chunks of a stream being encoded. */
+  private byte[] buffer;
+
+  /**
+   * Creates an object from the pair encoder class.
+   * @param table  the code table holding every pair's representation
+   */
+
+  PairEncoder(CodeTable table) {
+    this.table = table;
+    this.packer = new BitPacker((OutputStream)null, FrequencyCounter.BUFFER_SIZE);
+    this.buffer = new byte[FrequencyCounter.BUFFER_SIZE];
+  }
+
+  /**
+   * This method encodes every pair of bytes of a stream into another stream
+   * @param in   the stream that the original bytes are read from
+   * @param out  the stream that the encoded message is written to
+   * @return        the number of bits in the encoded message, not counting the zeros that fill the last byte
+   * @throws IOException if the bytes cannot be read or the encoded message cannot be written
+   */
+
+  public long encode(InputStream in, OutputStream out) throws IOException {
+    /** The bits of every pair's representation. */
+    long[] codes = table.getCodes();
+    /** The number of bits of every pair's representation. */
+    int[] lengths = table.getLengths();
+    /** The first byte of a pair that was split between two chunks, or -1 if there is none. */
+    int first = -1;
+    /** The number of bytes read into the buffer. */
+    int count;
+
+    packer.reset(out);
+    while ((count = in.read(buffer)) != -1) {
+      /** The index of the next byte in the chunk. */
+      int i = 0;
+
+      //Finish the pair that was started at the end of the last chunk
+      if (first >= 0 && count > 0) {
+        write(codes, lengths, (first << 8) | (buffer[i++] & 0xFF));
+        first = -1;
+      }
+      for (; i + 1 < count; i += 2) {
+        write(codes, lengths, ((buffer[i] & 0xFF) << 8) | (buffer[i + 1] & 0xFF));
+      }
+      if (i < count) {
+        first = buffer[i] & 0xFF;
+      }
+    }
+
+    //The last byte of an odd message is paired with a 0
+    if (first >= 0) {
+      write(codes, lengths, first << 8);
+    }
+
+    /** The number of zeros that fill the last byte. */
+    int extraBits = packer.finish();
+    return packer.getNumberOfBytes() * 8 - extraBits;
+  }
+
+  /**
+   * This method writes the representation of a single pair
+   * @param codes      the bits of every pair's representation
+   * @param lengths   the number of bits of every pair's representation
+   * @param symbol   the pair, with the first byte shifted left by 8 bits
+   * @throws IOException if the encoded message cannot be written
+   */
+
+  private void write(long[] codes, int[] lengths, int symbol) throws IOException {
+    if (lengths[symbol] == 0) {
+      throw new IOException("The pair " + symbol + " has no representation");
+    }
+    packer.write(codes[symbol], lengths[symbol]);
+  }
+}
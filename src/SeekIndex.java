@@ -0,0 +1,131 @@
+/* -------- IMPORTS ---------- */
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+/* -------------------------- */
+
+/**
+ * [SeekIndex.java]
+ * The program holds the seek index class that lets a single encoded message be decoded from the middle.
+ * Every time another interval of original bytes has been encoded, the number of bits packed so far is kept as a checkpoint,
+ * so a range of the original file can be decoded by starting at the checkpoint right before it instead of at the start.
+ * The index is written after the encoded message: the bit offset of every checkpoint, the interval and the number of checkpoints,
+ * each as an 8 byte number, so it can be read back from the end of the file.
+ * Checkpoint 0 is the start of the message, which is always at bit 0, so it is not written.
+ * @author Braydon Wang
+ * @version 1.1, Oct 18, 2026
+ */
+
+class SeekIndex {
+
+  /** The number of original bytes between checkpoints. */
+  private long interval;
+  /** The bit offset of every checkpoint after the first, where checkpoint k is at original byte k * interval. */
+  private long[] offsets;
+
+  /**
+   * Creates an object from the seek index class.
+   * @param interval  the number of original bytes between checkpoints
+   * @param offsets    the bit offset of every checkpoint after the first
+   */
+
+  SeekIndex(long interval, long[] offsets) {
+    this.interval = interval;
+    this.offsets = offsets;
+  }
+
+  /**
+   * This method returns the number of original bytes between checkpoints
+   * @return the interval
+   */
+
+  public long getInterval() {
+    return interval;
+  }
+
+  /**
+   * This method returns the number of checkpoints, including the one at the start of the message
+   * @return the number of checkpoints
+   */
+
+  public int getCheckpointCount() {
+    return offsets.length + 1;
+  }
+
+  /**
+   * This method returns where a checkpoint is in the encoded message
+   * @param checkpoint  the index of the checkpoint
+   * @return                 the number of bits before the checkpoint
+   */
+
+  public long getBitOffset(int checkpoint) {
+    return checkpoint == 0 ? 0 : offsets[checkpoint - 1];
+  }
+
+  /**
+   * This method finds the last checkpoint at or before an original byte
+   * @param position  the index of the original byte
+   * @return              the index of the checkpoint
+   */
+
+  public int findCheckpoint(long position) {
+    return (int)Math.min(position / interval, offsets.length);
+  }
+
+  /**
+   * This method returns the number of bytes the index takes up at the end of the file
+   * @return the number of bytes
+   */
+
+  public long getByteLength() {
+    return 8L * offsets.length + 16;
+  }
+
+  /**
+   * This method writes the index
+   * @param out  the stream that the index is written to, right after the encoded message
+   * @throws IOException if the index cannot be written
+   */
+
+  public void write(OutputStream out) throws IOException {
+    /** The stream used to write the numbers. */
+    DataOutputStream data = new DataOutputStream(out);
+    for (int i = 0; i < offsets.length; i++) {
+      data.writeLong(offsets[i]);
+    }
+    data.writeLong(interval);
+    data.writeLong(offsets.length);
+    data.flush();
+  }
+
+  /**
+   * This method reads the index from the end of a file
+   * @param file   the .MZIP file, opened for reading
+   * @param start  the position in the file where the encoded message starts
+   * @return         the seek index
+   * @throws IOException if the file does not end with a valid index
+   */
+
+  public static SeekIndex read(RandomAccessFile file, long start) throws IOException {
+    if (file.length() - start < 16) {
+      throw new IOException("Not a valid .MZIP seek index");
+    }
+    file.seek(file.length() - 16);
+    /** The number of original bytes between checkpoints. */
+    long interval = file.readLong();
+    /** The number of checkpoints written. */
+    long count = file.readLong();
+    if (interval <= 0 || count < 0 || count * 8 + 16 > file.length() - start) {
+      throw new IOException("Not a valid .MZIP seek index");
+    }
+
+    /** The bit offset of every checkpoint after the first. */
+    long[] offsets = new long[(int)count];
+    file.seek(file.length() - 16 - count * 8);
+    for (int i = 0; i < count; i++) {
+      offsets[i] = file.readLong();
+    }
+    return new SeekIndex(interval, offsets);
+  }
+}
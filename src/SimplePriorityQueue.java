@@ -1,152 +1,162 @@
+/* -------- IMPORTS ---------- */
+import java.util.Arrays;
+/* -------------------------- */
+
 /**
  * [SimplePriorityQueue.java]
  * The program holds the priority queue class that sorts the frequency of every node in the binary tree in ascending order.
- * It has a head and a tail node that represents the front and the end of the queue.
+ * The nodes are kept in an array that forms a binary heap, where every node has a priority no higher than its two children.
+ * Only the number of every node is kept, next to its priority in a second array, so the queue never allocates a node object.
  * The queue can have items added into it and will remove the highest priority node in the queue.
  * In this case, the lower the frequency, the higher the priority and vice versa.
+ * Nodes with the same frequency are removed in the order they were added, so the same frequencies always build the same tree.
  * @author Braydon Wang
  * @version 1.0, Oct 22, 2020
  */
 
-class SimplePriorityQueue<T>{
-  
-  /** The head node of the queue. */
-  private Node<T> head;
-  /** The tail node of the queue. */
-  private Node<T> tail;
-  
+class SimplePriorityQueue {
+
+  /** The value returned when the queue is empty. */
+  static final int EMPTY = -1;
+
+  /** The numbers of the nodes in the queue, stored as a binary heap where the children of index i are at 2i+1 and 2i+2. */
+  private int[] heap;
+  /** The priority of every node in the heap. */
+  private long[] priorities;
+  /** The order that every node in the heap was added in, used to break ties between equal frequencies. */
+  private long[] order;
+  /** The number of nodes in the queue. */
+  private int size;
+  /** The order given to the next node that is added. */
+  private long nextOrder;
+
   /**
    * Creates an object from the priority queue class.
    */
-  
+
   SimplePriorityQueue(){
-    head = null;
-    tail = null;
+    this(16);
   }
-  
+
   /**
-   * This method adds a new node to the queue in the right spot to keep the queue sorted by priority
-   * @param item       the item that the new node holds
+   * Creates an object from the priority queue class with room for the given number of nodes.
+   * @param capacity  the number of nodes the queue can hold before it has to grow
+   */
+
+  SimplePriorityQueue(int capacity){
+    heap = new int[Math.max(capacity, 1)];
+    priorities = new long[heap.length];
+    order = new long[heap.length];
+    size = 0;
+    nextOrder = 0;
+  }
+
+  /**
+   * This method adds a new node to the heap and moves it up until its parent has a higher priority
+   * @param node       the number of the new node
    * @param priority  the priority of the new node
-   * @param left         the new node's left child
-   * @param right      the new node's right child
    */
-  
-  public void enqueue(T item, int priority, Node<T> left, Node<T> right) {
-    
-    //If there is nothing in the queue, make the head equal to the new node added
-    if (head == null) {
-      head = new Node<T>(item,priority,left,right,null,null);
-      
-    //If the queue only holds one item, make either the tail or head equal to the new node depending on its priority
-    } else if (tail == null) {
-      
-      //Make the tail equal to the new node if it has a higher priority than the current head node
-      if (priority > head.getPriority()){
-        tail = new Node<T>(item,priority,left,right,null,head);
-        head.setNext(tail);
-        
-      //Make the head equal to the new node if it has a lower priority than the current head node
-      } else {
-        tail = head;
-        head = new Node<T>(item,priority,left,right,tail,null);
-      }
-      
-      //If there are two or more items in the queue, add it in whenever the priority is less than the next node
-    } else {
-      
-      /** A temporary node to hold the current node being referenced. */
-      Node<T> tempNode = head;
-      
-      //if the priority is less than the head, replace the head with the new node
-      if (priority < head.getPriority()) {
-        head = new Node<T>(item,priority,left,right,tempNode,null);
-        tempNode.setPrev(head);
-        
-      //if the priority is greater than or equal to the tail, replace the tail with the new node
-      } else if (priority >= tail.getPriority()) {
-        tempNode = tail;
-        tail = new Node<T>(item,priority,left,right,null,tempNode);
-        tempNode.setNext(tail);
-        
-        //If the new node fits somewhere between the head and the tail, loop through the queue starting from the head
-      } else {
-        //loop through every node until you reach the tail
-        while (tempNode.getNext() != null) {
-          /** The next node of the queue. */
-          Node<T> nextNode = tempNode.getNext();
-          
-          //Make the new node fit in between the current node and the next node if its priority lies between theirs
-          if (nextNode.getPriority() >= priority) {
-            tempNode.setNext(new Node<T>(item,priority,left,right,nextNode,tempNode));
-            nextNode.setPrev(new Node<T>(item,priority,left,right,nextNode,tempNode));
-            return;
-          }
-          
-          //Progress to the next node in the queue
-          tempNode = tempNode.getNext();
-        }
+
+  public void enqueue(int node, long priority) {
+
+    //If the heap is full, double the size of the arrays
+    if (size == heap.length) {
+      heap = Arrays.copyOf(heap, size * 2);
+      priorities = Arrays.copyOf(priorities, size * 2);
+      order = Arrays.copyOf(order, size * 2);
+    }
+
+    /** The order of the new node. */
+    long nodeOrder = nextOrder++;
+    /** The index that the new node is moving up from. */
+    int index = size++;
+
+    //Move the parent down while the new node should come before it
+    while (index > 0) {
+      /** The index of the parent of the current index. */
+      int parent = (index - 1) / 2;
+      if (!comesBefore(priority, nodeOrder, priorities[parent], order[parent])) {
+        break;
       }
+      heap[index] = heap[parent];
+      priorities[index] = priorities[parent];
+      order[index] = order[parent];
+      index = parent;
     }
+    heap[index] = node;
+    priorities[index] = priority;
+    order[index] = nodeOrder;
   }
-  
+
   /**
    * This method removes the first node in the queue, also known as the node with the highest priority/lowest frequency
-   * @return the node that was removed
+   * @return the number of the node that was removed, or EMPTY if the queue is empty
    */
-  
-  public Node<T> dequeue() {
-    
-    //if there are no nodes in the queue, return null
-    if (head == null) {
-      return null;
+
+  public int dequeue() {
+
+    //if there are no nodes in the queue, return EMPTY
+    if (size == 0) {
+      return EMPTY;
     }
-    
-    /** The temporary node that is currently being referenced. */
-    Node<T> tempNode = head;
-    //the head is now the next node that it refers to
-    head = tempNode.getNext();
-    //if the head's next node is the tail, remove the tail completely
-    if (tempNode.getNext() == tail) {
-      tail = null;
+
+    /** The node at the top of the heap, which is being removed. */
+    int first = heap[0];
+    size--;
+
+    /** The last node in the heap, which moves down from the top to fill the gap. */
+    int last = heap[size];
+    /** The priority of the last node. */
+    long lastPriority = priorities[size];
+    /** The order of the last node. */
+    long lastOrder = order[size];
+
+    //Move the last node down from the top while one of its children should come before it
+    if (size > 0) {
+      /** The index that the last node is moving down from. */
+      int index = 0;
+      while (2 * index + 1 < size) {
+        /** The index of the child that should come first. */
+        int child = 2 * index + 1;
+        if (child + 1 < size && comesBefore(priorities[child + 1], order[child + 1], priorities[child], order[child])) {
+          child++;
+        }
+        if (!comesBefore(priorities[child], order[child], lastPriority, lastOrder)) {
+          break;
+        }
+        heap[index] = heap[child];
+        priorities[index] = priorities[child];
+        order[index] = order[child];
+        index = child;
+      }
+      heap[index] = last;
+      priorities[index] = lastPriority;
+      order[index] = lastOrder;
     }
-    
+
     //return the node that was removed
-    return tempNode;
+    return first;
   }
-  
+
   /**
    * This method returns the size of the priority queue
    * @return the size of the queue
    */
-  
+
   public int size() {
-    
-    //if there are no elements, return a size of 0
-    if (head == null) {
-      return 0;
-      
-    //if there are only one element, return a size of 1
-    } else if (tail == null) {
-      return 1;
-      
-    //if there are two or more elements in the queue, loop through every single node in the queue
-    } else {
-      /** A counter used to count the number of nodes encountered so far. */
-      int count = 1;
-      /** A temporary node that is currently being referenced. */
-      Node<T> tempNode = head;
-      
-      //loop through every node until you reach the tail
-      while (tempNode.getNext() != null) {
-        //progress to the next node
-        tempNode = tempNode.getNext();
-        //increase the counter by 1
-        count++;
-      }
-      
-      //return the final value of the number of nodes encountered
-      return count;
-    }
+    return size;
+  }
+
+  /**
+   * This method checks if one node should be removed from the queue before another
+   * @param priority        the priority of the first node
+   * @param order           the order that the first node was added in
+   * @param otherPriority  the priority of the second node
+   * @param otherOrder     the order that the second node was added in
+   * @return true if the first node comes before the second node, false otherwise
+   */
+
+  private static boolean comesBefore(long priority, long order, long otherPriority, long otherOrder) {
+    return priority < otherPriority || (priority == otherPriority && order < otherOrder);
   }
-}
+}
\ No newline at end of file
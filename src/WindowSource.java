@@ -0,0 +1,31 @@
+/* -------- IMPORTS ---------- */
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+/* -------------------------- */
+
+/**
+ * [WindowSource.java]
+ * The program holds the window source interface for a file that is read one buffer, or window, at a time instead of through a stream.
+ * The FrequencyCounter and HuffmanEncoder classes read every window in place, so the bytes are never copied into an array first.
+ * @author Braydon Wang
+ * @version 1.1, Oct 18, 2026
+ */
+
+interface WindowSource extends Closeable {
+
+  /**
+   * This method returns the next window of the file, which can only be used until this method is called again
+   * @return the next window, with its position and limit around the bytes, or null if the whole file has been read
+   * @throws IOException if the file cannot be read
+   */
+
+  ByteBuffer nextWindow() throws IOException;
+
+  /**
+   * This method goes back to the start of the file so that it can be read again
+   * @throws IOException if the file cannot be read again
+   */
+
+  void rewind() throws IOException;
+}
@@ -0,0 +1,126 @@
+/* -------- IMPORTS ---------- */
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+/* -------------------------- */
+
+/**
+ * [BatchEncoderTest.java]
+ * The program tests that a batch with a code table cache only reuses a table when it costs no more than the tolerance over a built one.
+ * Every file holds only the letters a, b and c, so the fingerprints of two files can be made the same or different by choosing their counts.
+ * @author Braydon Wang
+ * @version 1.1, Oct 18, 2026
+ */
+
+public class BatchEncoderTest {
+
+  /** The fraction that a cached table may be longer than a built table. */
+  private static final double TOLERANCE = 0.01;
+
+  /** The folder that the files of every test are made in, which is deleted afterwards. */
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  /**
+   * This method checks that a table cached for a file whose letters are spread out differently is not reused,
+   * since the file after it would then be about a third larger than with its own table
+   * @throws Exception if the files cannot be written or encoded
+   */
+
+  @Test
+  public void rejectsTableThatDoesNotFit() throws Exception {
+    /** The file that the table is cached for, which is mostly b and c. */
+    File first = letters("a.dat", 500, 98500, 79900);
+    /** The file that comes after it, which is mostly a. */
+    File second = letters("b.dat", 53800, 15900, 18300);
+    /** The cache shared by the batch. */
+    CodeTableCache cache = new CodeTableCache(4, TOLERANCE);
+
+    /** The size of the second file's .MZIP file when its table is built. */
+    long built = encode(null, second);
+    /** The size of the second file's .MZIP file after the first file is cached. */
+    long cached = encode(cache, first, second);
+
+    assertEquals(0, cache.getHits());
+    assertEquals(1, cache.getRejections());
+    assertTrue(cached + " bytes with the cache, " + built + " without", cached <= built * (1 + TOLERANCE));
+  }
+
+  /**
+   * This method checks that a table cached for a file whose letters are spread out the same way is reused
+   * and costs no more than the tolerance over a built table
+   * @throws Exception if the files cannot be written or encoded
+   */
+
+  @Test
+  public void reusesTableThatFits() throws Exception {
+    /** The file that the table is cached for. */
+    File first = letters("a.dat", 50000, 25000, 25000);
+    /** The file that comes after it, with almost the same shares. */
+    File second = letters("b.dat", 50500, 24800, 24700);
+    /** The cache shared by the batch. */
+    CodeTableCache cache = new CodeTableCache(4, TOLERANCE);
+
+    /** The size of the second file's .MZIP file when its table is built. */
+    long built = encode(null, second);
+    /** The size of the second file's .MZIP file when it reuses the first file's table. */
+    long cached = encode(cache, first, second);
+
+    assertEquals(1, cache.getHits());
+    assertTrue(cached + " bytes with the cache, " + built + " without", cached <= built * (1 + TOLERANCE));
+  }
+
+  /**
+   * This method writes a file of the letters a, b and c, each repeated the given number of times
+   * @param name  the name of the file in the folder
+   * @param a       the number of times a appears
+   * @param b       the number of times b appears
+   * @param c       the number of times c appears
+   * @return          the file
+   * @throws IOException if the file cannot be written
+   */
+
+  private File letters(String name, int a, int b, int c) throws IOException {
+    /** The file being written. */
+    File file = new File(folder.getRoot(), name);
+    /** The bytes of the file. */
+    byte[] data = new byte[a + b + c];
+    Arrays.fill(data, 0, a, (byte)'a');
+    Arrays.fill(data, a, a + b, (byte)'b');
+    Arrays.fill(data, a + b, data.length, (byte)'c');
+
+    /** The stream that the bytes are written to. */
+    OutputStream out = new FileOutputStream(file);
+    try {
+      out.write(data);
+    } finally {
+      out.close();
+    }
+    return file;
+  }
+
+  /**
+   * This method encodes files one after another with a single thread and finds the size of the last one's .MZIP file
+   * @param cache  the cache shared by the files, or null to build a table for every file
+   * @param files   the files, in the order they are encoded
+   * @return           the number of bytes in the .MZIP file of the last file
+   * @throws InterruptedException if the batch is interrupted
+   */
+
+  private static long encode(CodeTableCache cache, File... files) throws InterruptedException {
+    /** The encoder of the batch. */
+    BatchEncoder encoder = new BatchEncoder(false, 0, 1);
+    encoder.setCache(cache);
+    encoder.encodeAll(Arrays.asList(files));
+    assertTrue(encoder.getFailures().toString(), encoder.getFailures().isEmpty());
+    return BatchEncoder.encodedFile(files[files.length - 1]).length();
+  }
+}